@@ -3,10 +3,22 @@ package com.learning.movie.config;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.learning.movie.config.concurrency.AdaptiveConcurrencyLimiter;
+import com.learning.movie.config.concurrency.DailyQuotaGovernor;
+import com.learning.movie.config.concurrency.RateLimitingFilter;
+import com.learning.movie.config.concurrency.UpstreamCircuitBreakers;
+import com.learning.movie.config.properties.ConditionalRequestCacheProperties;
+import com.learning.movie.config.properties.RateLimiterProperties;
 import com.learning.movie.config.properties.TwilioSendGridEmailApiProperties;
 import com.learning.movie.config.properties.WebClientProperties;
+import com.learning.movie.config.retry.RetryBudget;
+import com.learning.movie.config.retry.RetryProperties;
+import com.learning.movie.config.retry.WebClientRetryer;
 import com.learning.movie.dto.tmdb.serializer.GenreSetSerializer;
+import com.learning.movie.service.cache.ConditionalRequestCache;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,7 +26,9 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
 import org.springframework.web.reactive.function.client.ClientRequest;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -22,19 +36,43 @@ import reactor.netty.http.client.HttpClient;
 import reactor.netty.resources.ConnectionProvider;
 
 import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.learning.movie.config.properties.WebClientProperties.AUTH_SERVICE_UPSTREAM;
+import static com.learning.movie.config.properties.WebClientProperties.OMDB_UPSTREAM;
+import static com.learning.movie.config.properties.WebClientProperties.OPENAI_UPSTREAM;
+import static com.learning.movie.config.properties.WebClientProperties.SENDGRID_UPSTREAM;
+import static com.learning.movie.config.properties.WebClientProperties.TMDB_UPSTREAM;
 
 @Configuration
 public class AppConfig {
     private static final Logger LOGGER = LoggerFactory.getLogger(AppConfig.class);
 
     private final WebClientProperties webClientProperties;
-    private final ReactorClientHttpConnector reactorClientHttpConnector;
+    private final RateLimiterProperties rateLimiterProperties;
+    private final RetryProperties retryProperties;
+    private final RetryBudget retryBudget;
+    private final UpstreamCircuitBreakers upstreamCircuitBreakers;
+    private final List<DailyQuotaGovernor> quotaGovernors;
+    private final MeterRegistry meterRegistry;
+    private final List<ConnectionProvider> connectionProviders = new CopyOnWriteArrayList<>();
 
     @Autowired
     public AppConfig(final WebClientProperties webClientProperties,
-                     final ReactorClientHttpConnector reactorClientHttpConnector) {
+                     final RateLimiterProperties rateLimiterProperties,
+                     final RetryProperties retryProperties,
+                     final RetryBudget retryBudget,
+                     final UpstreamCircuitBreakers upstreamCircuitBreakers,
+                     final List<DailyQuotaGovernor> quotaGovernors,
+                     final MeterRegistry meterRegistry) {
         this.webClientProperties = webClientProperties;
-        this.reactorClientHttpConnector = reactorClientHttpConnector;
+        this.rateLimiterProperties = rateLimiterProperties;
+        this.retryProperties = retryProperties;
+        this.retryBudget = retryBudget;
+        this.upstreamCircuitBreakers = upstreamCircuitBreakers;
+        this.quotaGovernors = quotaGovernors;
+        this.meterRegistry = meterRegistry;
     }
 
     @Bean
@@ -49,32 +87,18 @@ public class AppConfig {
         return builder -> builder.serializers(new GenreSetSerializer());
     }
 
-    @Bean
-    public ConnectionProvider connectionProvider() {
-        return ConnectionProvider.builder(this.webClientProperties.getConnectionProviderName())
-                .maxConnections(this.webClientProperties.getMaxConnections()) // Maximum number of connections in the pool
-                .maxIdleTime(this.webClientProperties.getMaxIdleTimeDuration()) // How long an idle connections stays open before being closed
-                .evictInBackground(this.webClientProperties.getEvictionThresholdDuration()) // Eviction strategy for expired connections
-                .build();
-    }
-
-    @Bean
-    public HttpClient httpClient(final ConnectionProvider connectionProvider) {
-        return HttpClient.create(connectionProvider)
-                .responseTimeout(this.webClientProperties.getResponseTimeoutDuration())
-                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, this.webClientProperties.getConnectionTimeout());
-    }
-
-    @Bean
-    public ReactorClientHttpConnector reactorClientHttpConnector(final HttpClient httpClient) {
-        return new ReactorClientHttpConnector(httpClient);
-    }
-
+    /**
+     * OMDb labels its JSON responses as {@code text/plain}, so a JSON decoder is registered for that media type to
+     * decode response bodies straight from the network buffers into DTOs, rather than into an intermediate String
+     */
     @Bean
     public WebClient omdbApiClient(@Value("${omdbapi.base.url}") final String omdbApiBaseUrl,
                                    @Value("${omdbapi.api.key}") final String omdbApiKey,
-                                   @Value("${omdbapi.api.key.query-param}") final String omdbApiKeyQueryParam) {
-        return this.initWebClientBuilderWithBaseConfig(omdbApiBaseUrl)
+                                   @Value("${omdbapi.api.key.query-param}") final String omdbApiKeyQueryParam,
+                                   final ObjectMapper objectMapper) {
+        return this.initWebClientBuilderWithBaseConfig(OMDB_UPSTREAM, omdbApiBaseUrl)
+                .codecs(configurer -> configurer.customCodecs()
+                        .register(new Jackson2JsonDecoder(objectMapper, MediaType.TEXT_PLAIN, MediaType.APPLICATION_JSON)))
                 .filter((request, next) -> {
                     final URI apiKeyAppendedUri = UriComponentsBuilder.fromUri(request.url())
                             .queryParam(omdbApiKeyQueryParam, omdbApiKey)
@@ -90,23 +114,30 @@ public class AppConfig {
                 .build();
     }
 
+    /**
+     * TMDB responses carry validators, so repeat lookups are revalidated with conditional requests and unchanged
+     * bodies are served from the {@link ConditionalRequestCache}
+     */
     @Bean
     public WebClient tmdbApiClient(@Value("${tmdb.base.url}") final String tmdbApiBaseUrl,
-                                   @Value("${tmdb.api.access.key}") final String tmdbApiAccessKey) {
-        return this.initWebClientBuilderWithBaseConfig(tmdbApiBaseUrl)
+                                   @Value("${tmdb.api.access.key}") final String tmdbApiAccessKey,
+                                   final ConditionalRequestCacheProperties conditionalRequestCacheProperties) {
+        return this.initWebClientBuilderWithBaseConfig(TMDB_UPSTREAM, tmdbApiBaseUrl)
                 .defaultHeaders(httpHeaders -> httpHeaders.setBearerAuth(tmdbApiAccessKey))
+                .filter(new ConditionalRequestCache(TMDB_UPSTREAM.concat("-conditional"),
+                                                    conditionalRequestCacheProperties, this.meterRegistry))
                 .build();
     }
 
     @Bean
     public WebClient userAuthenticationServiceClient(@Value("${auth-service.base.url}") final String authServiceBaseUrl) {
-        return this.initWebClientBuilderWithBaseConfig(authServiceBaseUrl)
+        return this.initWebClientBuilderWithBaseConfig(AUTH_SERVICE_UPSTREAM, authServiceBaseUrl)
                 .build();
     }
 
     @Bean
     public WebClient twilioSendGridEmailApiClient(final TwilioSendGridEmailApiProperties twilioSendGridEmailApiProperties) {
-        return this.initWebClientBuilderWithBaseConfig(twilioSendGridEmailApiProperties.getUrl())
+        return this.initWebClientBuilderWithBaseConfig(SENDGRID_UPSTREAM, twilioSendGridEmailApiProperties.getUrl())
                 .defaultHeaders(httpHeaders -> httpHeaders.setBearerAuth(twilioSendGridEmailApiProperties.getKey()))
                 .build();
     }
@@ -114,18 +145,74 @@ public class AppConfig {
     @Bean
     public WebClient openAiClient(@Value("${openai.base.url}") final String openAiBaseUrl,
                                   @Value("${openai.api.key}") final String openAiApiKey) {
-        return this.initWebClientBuilderWithBaseConfig(openAiBaseUrl)
+        return this.initWebClientBuilderWithBaseConfig(OPENAI_UPSTREAM, openAiBaseUrl)
                 .defaultHeaders(httpHeaders -> httpHeaders.setBearerAuth(openAiApiKey))
                 .build();
     }
 
-    private WebClient.Builder initWebClientBuilderWithBaseConfig(final String hostName) {
-        return WebClient.builder()
+    @PreDestroy
+    public void disposeConnectionProviders() {
+        this.connectionProviders.forEach(ConnectionProvider::dispose);
+    }
+
+    /**
+     * The retryer is registered ahead of the circuit breaker and the rate limiter, so that every retry is recorded by
+     * the breaker and waits for its own token like any other request to the upstream, while calls rejected by an open
+     * breaker never wait for a token
+     * <p />
+     * The daily quota of the upstream, if it has one, is governed right behind the circuit breaker, so that every retry
+     * is counted against the quota while calls rejected by an open breaker are not
+     * <p />
+     * The exchange latency recorder comes last, so that the latency fed to the concurrency limiters excludes the time
+     * spent in the rate limiter and in retry backoffs
+     */
+    private WebClient.Builder initWebClientBuilderWithBaseConfig(final String upstream, final String hostName) {
+        final WebClient.Builder webClientBuilder = WebClient.builder()
                 .baseUrl(hostName)
                 .filter(((request, next) -> {
                     LOGGER.info("WebClient {} request to: {}", request.method(), request.url());
                     return next.exchange(request);
                 }))
-                .clientConnector(this.reactorClientHttpConnector);
+                .filter(new WebClientRetryer(upstream, this.retryProperties.getUpstream(upstream), this.retryBudget,
+                                             this.meterRegistry))
+                .filter(this.upstreamCircuitBreakers.forUpstream(upstream))
+                .clientConnector(this.createClientHttpConnector(upstream));
+
+        this.quotaGovernors.stream()
+                .filter(quotaGovernor -> quotaGovernor.getUpstream().equals(upstream))
+                .findFirst()
+                .map(DailyQuotaGovernor::asFilter)
+                .ifPresent(webClientBuilder::filter);
+
+        this.rateLimiterProperties.getUpstream(upstream)
+                .map(rateLimit -> new RateLimitingFilter(upstream, rateLimit, this.meterRegistry))
+                .ifPresent(webClientBuilder::filter);
+
+        return webClientBuilder.filter(AdaptiveConcurrencyLimiter.exchangeLatencyRecorder());
+    }
+
+    /**
+     * Creates a connector backed by a connection pool dedicated to the upstream, named after it. The pool publishes its
+     * active, idle and pending connections and its acquisition time as the {@code reactor.netty.connection.provider.*}
+     * metrics, tagged with the pool's name
+     */
+    private ReactorClientHttpConnector createClientHttpConnector(final String upstream) {
+        final WebClientProperties.Pool pool = this.webClientProperties.getUpstream(upstream);
+
+        final ConnectionProvider connectionProvider = ConnectionProvider.builder(upstream)
+                .maxConnections(pool.getMaxConnections()) // Maximum number of connections in the pool
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount()) // Maximum number of requests waiting for a connection
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeoutDuration()) // How long a request waits for a connection before failing
+                .maxIdleTime(pool.getMaxIdleTimeDuration()) // How long an idle connections stays open before being closed
+                .evictInBackground(pool.getEvictionThresholdDuration()) // Eviction strategy for expired connections
+                .metrics(true)
+                .build();
+        this.connectionProviders.add(connectionProvider);
+
+        final HttpClient httpClient = HttpClient.create(connectionProvider)
+                .responseTimeout(pool.getResponseTimeoutDuration())
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, pool.getConnectionTimeout());
+
+        return new ReactorClientHttpConnector(httpClient);
     }
 }
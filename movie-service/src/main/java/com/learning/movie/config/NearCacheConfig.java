@@ -0,0 +1,28 @@
+package com.learning.movie.config;
+
+import com.learning.movie.config.properties.NearCacheProperties;
+import com.learning.movie.dto.CachedPaginatedResponse;
+import com.learning.movie.dto.tmdb.TmdbMovie;
+import com.learning.movie.service.cache.NearCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+
+@Configuration
+public class NearCacheConfig {
+
+    @Bean
+    public NearCache<CachedPaginatedResponse> searchResultPageNearCache(final NearCacheProperties nearCacheProperties,
+                                                                        final ReactiveStringRedisTemplate reactiveStringRedisTemplate,
+                                                                        final MeterRegistry meterRegistry) {
+        return new NearCache<>("searchResultPages", nearCacheProperties, reactiveStringRedisTemplate, meterRegistry);
+    }
+
+    @Bean
+    public NearCache<TmdbMovie> tmdbMovieNearCache(final NearCacheProperties nearCacheProperties,
+                                                   final ReactiveStringRedisTemplate reactiveStringRedisTemplate,
+                                                   final MeterRegistry meterRegistry) {
+        return new NearCache<>("tmdbMovies", nearCacheProperties, reactiveStringRedisTemplate, meterRegistry);
+    }
+}
@@ -1,8 +1,10 @@
 package com.learning.movie.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.learning.movie.dto.PaginatedMoviesResponse;
+import com.learning.movie.dto.CachedPaginatedResponse;
+import com.learning.movie.dto.FederatedSearchResponse;
 import com.learning.movie.dto.tmdb.NewlyReleasedMoviesResponse;
+import com.learning.movie.dto.tmdb.TmdbMovie;
 import com.learning.movie.dto.tmdb.provider.WatchProvidersResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -40,9 +42,20 @@ public class RedisConfig {
     }
 
     @Bean
-    public ReactiveRedisTemplate<String, PaginatedMoviesResponse> paginatedSearchMovieResultRedisTemplate(
+    public ReactiveRedisTemplate<String, CachedPaginatedResponse> searchResultPageRedisTemplate(
             ReactiveRedisConnectionFactory factory) {
-        return this.createRedisTemplate(factory, PaginatedMoviesResponse.class);
+        return this.createRedisTemplate(factory, CachedPaginatedResponse.class);
+    }
+
+    @Bean
+    public ReactiveRedisTemplate<String, FederatedSearchResponse> federatedSearchRedisTemplate(
+            ReactiveRedisConnectionFactory factory) {
+        return this.createRedisTemplate(factory, FederatedSearchResponse.class);
+    }
+
+    @Bean
+    public ReactiveRedisTemplate<String, TmdbMovie> tmdbMovieRedisTemplate(ReactiveRedisConnectionFactory factory) {
+        return this.createRedisTemplate(factory, TmdbMovie.class);
     }
 
     @Bean
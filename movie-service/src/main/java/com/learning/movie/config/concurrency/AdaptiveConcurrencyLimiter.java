@@ -0,0 +1,256 @@
+package com.learning.movie.config.concurrency;
+
+import com.learning.movie.config.properties.ConcurrencyLimiterProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the number of concurrent in-flight calls to an upstream API, adjusting the limit with additive-increase /
+ * multiplicative-decrease (AIMD)
+ * <ul>
+ *     <li>Every call that succeeds within the latency threshold increases the limit by {@code 1 / limit}, i.e. by
+ *         roughly one for every window of calls</li>
+ *     <li>Every call that is slower than the latency threshold, gets rejected with 429 or 503, or fails to connect or
+ *         times out multiplies the limit by the backoff ratio, at most once per latency threshold, so that the window
+ *         of calls that were already in flight when the upstream got overloaded only decreases the limit once</li>
+ * </ul>
+ * Calls exceeding the limit wait, without blocking, for a permit to be released.
+ * <p />
+ * The latency of a call is the latency of its slowest exchange with the upstream, as recorded by the
+ * {@link #exchangeLatencyRecorder()} filter of the WebClient, so the time spent waiting for a rate limiter token or
+ * backing off between retries is not mistaken for upstream slowness. A call that never reached the upstream does not
+ * move the limit unless it failed with an overload signal
+ * <p />
+ * Calls are admitted in two lanes according to their {@link RequestPriority}. Interactive calls may use the whole
+ * limit and are always granted released permits first. Background calls are only admitted while no interactive call is
+ * waiting and fewer calls than the background share of the limit are in flight, so they yield to interactive demand
+ * and back off on their own as contention shrinks the limit.
+ * <p />
+ * The current limit and the number of in-flight calls are published as the {@code movieapp.upstream.concurrency.limit}
+ * and {@code movieapp.upstream.concurrency.in-flight} gauges, and the number of waiting calls per lane as the
+ * {@code movieapp.upstream.concurrency.pending} gauge, tagged with the upstream's name
+ */
+public class AdaptiveConcurrencyLimiter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+    private static final String LIMIT_METRIC = "movieapp.upstream.concurrency.limit";
+    private static final String IN_FLIGHT_METRIC = "movieapp.upstream.concurrency.in-flight";
+    private static final String PENDING_METRIC = "movieapp.upstream.concurrency.pending";
+    private static final String UPSTREAM_TAG = "upstream";
+    private static final String PRIORITY_TAG = "priority";
+    private static final String PERMIT_CONTEXT_KEY = AdaptiveConcurrencyLimiter.class.getName().concat(".permit");
+
+    private final String upstream;
+    private final int minLimit;
+    private final int maxLimit;
+    private final Duration latencyThreshold;
+    private final double backoffRatio;
+    private final double backgroundLimitRatio;
+
+    private final Deque<MonoSink<Permit>> pendingInteractiveAcquisitions = new ArrayDeque<>();
+    private final Deque<MonoSink<Permit>> pendingBackgroundAcquisitions = new ArrayDeque<>();
+    private double limit;
+    private int inFlight;
+    private long lastDecreaseNanos;
+
+    public AdaptiveConcurrencyLimiter(final String upstream,
+                                      final ConcurrencyLimiterProperties.Limiter properties,
+                                      final MeterRegistry meterRegistry) {
+        this.upstream = upstream;
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.latencyThreshold = properties.getLatencyThreshold();
+        this.backoffRatio = properties.getBackoffRatio();
+        this.backgroundLimitRatio = properties.getBackgroundLimitRatio();
+        this.limit = properties.getInitialLimit();
+        this.lastDecreaseNanos = System.nanoTime() - this.latencyThreshold.toNanos();
+
+        Gauge.builder(LIMIT_METRIC, this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current number of concurrent calls allowed to the upstream")
+                .tag(UPSTREAM_TAG, upstream)
+                .register(meterRegistry);
+        Gauge.builder(IN_FLIGHT_METRIC, this, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Current number of in-flight calls to the upstream")
+                .tag(UPSTREAM_TAG, upstream)
+                .register(meterRegistry);
+
+        for (final RequestPriority priority : RequestPriority.values()) {
+            Gauge.builder(PENDING_METRIC, this, limiter -> limiter.getPendingCount(priority))
+                    .description("Current number of calls waiting for a permit to call the upstream")
+                    .tags(UPSTREAM_TAG, upstream, PRIORITY_TAG, priority.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+    }
+
+    public <T> Mono<T> limit(final Mono<T> request) {
+        return Mono.deferContextual(context -> this.acquire(RequestPriority.from(context)))
+                .flatMap(permit -> request
+                        .doOnSuccess(response -> permit.onSuccess())
+                        .doOnError(permit::onError)
+                        .doOnCancel(permit::release)
+                        .contextWrite(Context.of(PERMIT_CONTEXT_KEY, permit)));
+    }
+
+    /**
+     * Records the latency of every exchange made on behalf of a call holding a permit, to be registered as the innermost
+     * filter of a WebClient, i.e. behind its retryer and rate limiter
+     */
+    public static ExchangeFilterFunction exchangeLatencyRecorder() {
+        return (request, next) -> Mono.deferContextual(context -> context.getOrEmpty(PERMIT_CONTEXT_KEY)
+                .filter(Permit.class::isInstance)
+                .map(Permit.class::cast)
+                .map(permit -> {
+                    final long startNanos = System.nanoTime();
+                    return next.exchange(request)
+                            .doOnTerminate(() -> permit.recordExchange(System.nanoTime() - startNanos));
+                })
+                .orElseGet(() -> next.exchange(request)));
+    }
+
+    public synchronized double getLimit() {
+        return this.limit;
+    }
+
+    public synchronized int getInFlight() {
+        return this.inFlight;
+    }
+
+    public synchronized int getPendingCount(final RequestPriority priority) {
+        return this.pendingAcquisitionsOf(priority).size();
+    }
+
+    private Mono<Permit> acquire(final RequestPriority priority) {
+        return Mono.<Permit>create(sink -> {
+                    final Deque<MonoSink<Permit>> pendingAcquisitions = this.pendingAcquisitionsOf(priority);
+                    sink.onCancel(() -> {
+                        synchronized (this) {
+                            pendingAcquisitions.remove(sink);
+                        }
+                    });
+
+                    final boolean isAcquired;
+                    synchronized (this) {
+                        isAcquired = this.canAdmit(priority);
+                        if (isAcquired) {
+                            this.inFlight++;
+                        } else {
+                            pendingAcquisitions.addLast(sink);
+                        }
+                    }
+
+                    if (isAcquired) {
+                        sink.success(new Permit());
+                    }
+                })
+                .doOnDiscard(Permit.class, Permit::release);
+    }
+
+    /**
+     * Must be called while holding the lock of the limiter
+     */
+    private boolean canAdmit(final RequestPriority priority) {
+        if (priority == RequestPriority.INTERACTIVE) {
+            return this.inFlight < (int) this.limit;
+        }
+
+        return this.pendingInteractiveAcquisitions.isEmpty()
+               && this.inFlight < Math.max(1, (int) (this.limit * this.backgroundLimitRatio));
+    }
+
+    private Deque<MonoSink<Permit>> pendingAcquisitionsOf(final RequestPriority priority) {
+        return priority == RequestPriority.INTERACTIVE
+                ? this.pendingInteractiveAcquisitions
+                : this.pendingBackgroundAcquisitions;
+    }
+
+    /**
+     * @param latencyNanos the latency of the slowest exchange of the call, negative if the call made no exchange
+     */
+    private void onRelease(final long latencyNanos, final Throwable error, final boolean isCancelled) {
+        final boolean isOverloaded = !isCancelled && (error != null
+                ? isOverloadSignal(error)
+                : latencyNanos > this.latencyThreshold.toNanos());
+        final boolean isSuccessful = !isCancelled && error == null && latencyNanos >= 0;
+
+        final long nowNanos = System.nanoTime();
+        final Deque<MonoSink<Permit>> grantedAcquisitions = new ArrayDeque<>();
+        final boolean isDecreased;
+        synchronized (this) {
+            this.inFlight--;
+
+            isDecreased = isOverloaded && nowNanos - this.lastDecreaseNanos >= this.latencyThreshold.toNanos();
+            if (isDecreased) {
+                this.limit = Math.max(this.minLimit, this.limit * this.backoffRatio);
+                this.lastDecreaseNanos = nowNanos;
+            } else if (isSuccessful && !isOverloaded) {
+                this.limit = Math.min(this.maxLimit, this.limit + 1.0 / this.limit);
+            }
+
+            for (final RequestPriority priority : RequestPriority.values()) {
+                final Deque<MonoSink<Permit>> pendingAcquisitions = this.pendingAcquisitionsOf(priority);
+
+                while (!pendingAcquisitions.isEmpty() && this.canAdmit(priority)) {
+                    this.inFlight++;
+                    grantedAcquisitions.addLast(pendingAcquisitions.pollFirst());
+                }
+            }
+        }
+
+        if (isDecreased) {
+            LOGGER.debug("Decreased the concurrency limit of upstream [{}] to {}", this.upstream, this.getLimit());
+        }
+
+        grantedAcquisitions.forEach(sink -> sink.success(new Permit()));
+    }
+
+    private static boolean isOverloadSignal(final Throwable error) {
+        if (error instanceof WebClientResponseException ex) {
+            return ex.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS)
+                   || ex.getStatusCode().isSameCodeAs(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+
+        return error instanceof WebClientRequestException;
+    }
+
+    private final class Permit {
+        private final AtomicLong slowestExchangeNanos = new AtomicLong(-1);
+        private final AtomicBoolean isReleased = new AtomicBoolean();
+
+        private void recordExchange(final long exchangeNanos) {
+            this.slowestExchangeNanos.accumulateAndGet(exchangeNanos, Math::max);
+        }
+
+        private void onSuccess() {
+            this.complete(null, false);
+        }
+
+        private void onError(final Throwable error) {
+            this.complete(error, false);
+        }
+
+        private void release() {
+            this.complete(null, true);
+        }
+
+        private void complete(final Throwable error, final boolean isCancelled) {
+            if (this.isReleased.compareAndSet(false, true)) {
+                onRelease(this.slowestExchangeNanos.get(), error, isCancelled);
+            }
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.learning.movie.config.concurrency;
+
+import com.learning.movie.config.properties.CircuitBreakerProperties;
+import com.learning.movie.exception.UpstreamUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fails requests of a {@link org.springframework.web.reactive.function.client.WebClient} fast with an
+ * {@link UpstreamUnavailableException} while its upstream is down, instead of letting each of them wait for the
+ * response timeout
+ * <ul>
+ *     <li>Closed: calls go through and their outcomes are recorded in a sliding window. Connection failures, timeouts
+ *         and 5xx responses are failures. The breaker opens once the failure rate of the window crosses the
+ *         threshold</li>
+ *     <li>Open: every call is rejected until the open duration has elapsed</li>
+ *     <li>Half-open: a few trial calls are let through. The breaker closes once they all succeed and opens again as
+ *         soon as one of them fails</li>
+ * </ul>
+ * Calls are also rejected once the upstream's bulkhead, i.e. its maximum of concurrent calls, is full. Cancelled calls
+ * are not recorded. The state of the breaker, its transitions and its rejections, as well as the calls in flight and the
+ * bulkhead's rejections, are published as {@code movieapp.upstream.circuitbreaker.*} and
+ * {@code movieapp.upstream.bulkhead.*} metrics, tagged with the upstream's name
+ */
+public class CircuitBreakerFilter implements ExchangeFilterFunction {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CircuitBreakerFilter.class);
+
+    private static final String STATE_METRIC = "movieapp.upstream.circuitbreaker.state";
+    private static final String TRANSITIONS_METRIC = "movieapp.upstream.circuitbreaker.transitions";
+    private static final String REJECTED_METRIC = "movieapp.upstream.circuitbreaker.rejected";
+    private static final String BULKHEAD_IN_FLIGHT_METRIC = "movieapp.upstream.bulkhead.in-flight";
+    private static final String BULKHEAD_REJECTED_METRIC = "movieapp.upstream.bulkhead.rejected";
+    private static final String UPSTREAM_TAG = "upstream";
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String upstream;
+    private final CircuitBreakerProperties.Breaker properties;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejectedCounter;
+    private final Counter bulkheadRejectedCounter;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final boolean[] window;
+    private int windowIndex;
+    private int windowCalls;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long generation; // Incremented on every transition, so that calls started in a previous state are ignored
+    private long openedAtNanos;
+    private int trialCallsStarted;
+    private int trialCallsSucceeded;
+
+    public CircuitBreakerFilter(final String upstream,
+                                final CircuitBreakerProperties.Breaker properties,
+                                final MeterRegistry meterRegistry) {
+        this.upstream = upstream;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.window = new boolean[properties.getSlidingWindowSize()];
+
+        Gauge.builder(STATE_METRIC, this, breaker -> breaker.getState().ordinal())
+                .description("State of the circuit breaker: 0 closed, 1 open, 2 half-open")
+                .tag(UPSTREAM_TAG, upstream)
+                .register(meterRegistry);
+        Gauge.builder(BULKHEAD_IN_FLIGHT_METRIC, this.inFlight, AtomicInteger::get)
+                .description("Number of calls currently in flight to the upstream")
+                .tag(UPSTREAM_TAG, upstream)
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder(REJECTED_METRIC)
+                .description("Number of calls rejected by the open circuit breaker")
+                .tag(UPSTREAM_TAG, upstream)
+                .register(meterRegistry);
+        this.bulkheadRejectedCounter = Counter.builder(BULKHEAD_REJECTED_METRIC)
+                .description("Number of calls rejected by the full bulkhead")
+                .tag(UPSTREAM_TAG, upstream)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(final ClientRequest request, final ExchangeFunction next) {
+        return Mono.defer(() -> {
+            if (this.inFlight.incrementAndGet() > this.properties.getMaxConcurrentCalls()) {
+                this.inFlight.decrementAndGet();
+                this.bulkheadRejectedCounter.increment();
+                return Mono.error(new UpstreamUnavailableException(this.upstream, "too many concurrent calls"));
+            }
+
+            final long callGeneration = this.tryAcquire();
+
+            if (callGeneration < 0) {
+                this.inFlight.decrementAndGet();
+                this.rejectedCounter.increment();
+                return Mono.error(new UpstreamUnavailableException(this.upstream, "circuit breaker is open"));
+            }
+
+            final Call call = new Call(callGeneration);
+
+            return next.exchange(request)
+                    .doOnNext(response -> call.complete(response.statusCode().is5xxServerError()))
+                    .doOnError(error -> {
+                        if (error instanceof WebClientRequestException) {
+                            call.complete(true);
+                        } else {
+                            call.release();
+                        }
+                    })
+                    .doOnCancel(call::release);
+        });
+    }
+
+    public synchronized State getState() {
+        return this.state;
+    }
+
+    /**
+     * @return the state, failure rate and calls in flight of the breaker, as exposed by the actuator's info endpoint
+     */
+    public synchronized Map<String, Object> describe() {
+        final Map<String, Object> details = new LinkedHashMap<>();
+        details.put("state", this.state);
+        details.put("failureRate", this.windowCalls == 0 ? 0 : (double) this.windowFailures / this.windowCalls);
+        details.put("inFlight", this.inFlight.get());
+        details.put("maxConcurrentCalls", this.properties.getMaxConcurrentCalls());
+        return details;
+    }
+
+    /**
+     * @return the generation of the state the call was admitted in, or -1 if the call is rejected
+     */
+    private synchronized long tryAcquire() {
+        if (this.state == State.OPEN) {
+            if (System.nanoTime() - this.openedAtNanos < this.properties.getOpenDuration().toNanos()) {
+                return -1;
+            }
+
+            this.transitionTo(State.HALF_OPEN);
+        }
+
+        if (this.state == State.HALF_OPEN) {
+            if (this.trialCallsStarted >= this.properties.getHalfOpenTrialCalls()) {
+                return -1;
+            }
+
+            this.trialCallsStarted++;
+        }
+
+        return this.generation;
+    }
+
+    private synchronized void onComplete(final long callGeneration, final boolean isFailure) {
+        if (callGeneration != this.generation) {
+            return;
+        }
+
+        if (this.state == State.HALF_OPEN) {
+            if (isFailure) {
+                this.transitionTo(State.OPEN);
+            } else if (++this.trialCallsSucceeded >= this.properties.getHalfOpenTrialCalls()) {
+                this.transitionTo(State.CLOSED);
+            }
+            return;
+        }
+
+        if (this.windowCalls == this.window.length) {
+            this.windowCalls--;
+            if (this.window[this.windowIndex]) {
+                this.windowFailures--;
+            }
+        }
+
+        this.window[this.windowIndex] = isFailure;
+        this.windowIndex = (this.windowIndex + 1) % this.window.length;
+        this.windowCalls++;
+        if (isFailure) {
+            this.windowFailures++;
+        }
+
+        if (this.windowCalls >= this.properties.getMinimumCalls()
+            && (double) this.windowFailures / this.windowCalls >= this.properties.getFailureRateThreshold()) {
+            this.transitionTo(State.OPEN);
+        }
+    }
+
+    private synchronized void onRelease(final long callGeneration) {
+        if (callGeneration == this.generation && this.state == State.HALF_OPEN) {
+            this.trialCallsStarted--;
+        }
+    }
+
+    private void transitionTo(final State newState) {
+        LOGGER.warn("Circuit breaker of {} transitions from {} to {}", this.upstream, this.state, newState);
+        this.meterRegistry.counter(TRANSITIONS_METRIC, UPSTREAM_TAG, this.upstream,
+                                   "from", this.state.name(), "to", newState.name())
+                .increment();
+
+        this.state = newState;
+        this.generation++;
+        this.windowIndex = 0;
+        this.windowCalls = 0;
+        this.windowFailures = 0;
+        this.trialCallsStarted = 0;
+        this.trialCallsSucceeded = 0;
+
+        if (newState == State.OPEN) {
+            this.openedAtNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * A call admitted by the breaker and the bulkhead, completed at most once
+     */
+    private final class Call {
+        private final long generation;
+        private final AtomicBoolean isCompleted = new AtomicBoolean();
+
+        private Call(final long generation) {
+            this.generation = generation;
+        }
+
+        private void complete(final boolean isFailure) {
+            if (this.isCompleted.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+                onComplete(this.generation, isFailure);
+            }
+        }
+
+        private void release() {
+            if (this.isCompleted.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+                onRelease(this.generation);
+            }
+        }
+    }
+}
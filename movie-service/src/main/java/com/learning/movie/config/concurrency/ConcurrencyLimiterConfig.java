@@ -0,0 +1,52 @@
+package com.learning.movie.config.concurrency;
+
+import com.learning.movie.config.properties.ConcurrencyLimiterProperties;
+import com.learning.movie.config.properties.HedgingProperties;
+import com.learning.movie.config.properties.QuotaProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+
+import static com.learning.movie.config.properties.ConcurrencyLimiterProperties.OMDB_UPSTREAM;
+import static com.learning.movie.config.properties.ConcurrencyLimiterProperties.TMDB_UPSTREAM;
+import static com.learning.movie.config.properties.HedgingProperties.TMDB_MOVIE_DETAILS_OPERATION;
+import static com.learning.movie.config.properties.HedgingProperties.TMDB_WATCH_PROVIDERS_OPERATION;
+
+@Configuration
+public class ConcurrencyLimiterConfig {
+
+    @Bean
+    public AdaptiveConcurrencyLimiter omdbConcurrencyLimiter(final ConcurrencyLimiterProperties concurrencyLimiterProperties,
+                                                             final MeterRegistry meterRegistry) {
+        return new AdaptiveConcurrencyLimiter(OMDB_UPSTREAM, concurrencyLimiterProperties.getUpstream(OMDB_UPSTREAM), meterRegistry);
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter tmdbConcurrencyLimiter(final ConcurrencyLimiterProperties concurrencyLimiterProperties,
+                                                             final MeterRegistry meterRegistry) {
+        return new AdaptiveConcurrencyLimiter(TMDB_UPSTREAM, concurrencyLimiterProperties.getUpstream(TMDB_UPSTREAM), meterRegistry);
+    }
+
+    @Bean
+    public DailyQuotaGovernor omdbQuotaGovernor(final QuotaProperties quotaProperties,
+                                                final ReactiveStringRedisTemplate reactiveStringRedisTemplate,
+                                                final MeterRegistry meterRegistry) {
+        return new DailyQuotaGovernor(OMDB_UPSTREAM, quotaProperties.getUpstream(OMDB_UPSTREAM),
+                                      reactiveStringRedisTemplate, meterRegistry);
+    }
+
+    @Bean
+    public RequestHedger tmdbMovieDetailsHedger(final HedgingProperties hedgingProperties,
+                                                final MeterRegistry meterRegistry) {
+        return new RequestHedger(TMDB_MOVIE_DETAILS_OPERATION,
+                                 hedgingProperties.getOperation(TMDB_MOVIE_DETAILS_OPERATION), meterRegistry);
+    }
+
+    @Bean
+    public RequestHedger tmdbWatchProvidersHedger(final HedgingProperties hedgingProperties,
+                                                  final MeterRegistry meterRegistry) {
+        return new RequestHedger(TMDB_WATCH_PROVIDERS_OPERATION,
+                                 hedgingProperties.getOperation(TMDB_WATCH_PROVIDERS_OPERATION), meterRegistry);
+    }
+}
@@ -0,0 +1,265 @@
+package com.learning.movie.config.concurrency;
+
+import com.learning.movie.config.properties.QuotaProperties;
+import com.learning.movie.exception.UpstreamQuotaExhaustedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * Accounts the calls made to an upstream against its daily request quota, counted per UTC day in Redis so that every
+ * instance of the service shares the same count
+ * <p />
+ * The governor is registered as a filter of the upstream's WebClient behind its retryer (see {@link #asFilter()}), so
+ * that every attempt of a call is counted, retries included
+ * <p />
+ * Interactive calls may use the whole daily limit, whereas background calls are rejected once only the interactive
+ * reserve is left, so that prefetches, revalidations and schedulers can never starve users of the quota. Rejected
+ * calls fail with {@link UpstreamQuotaExhaustedException} and are not counted.
+ * <p />
+ * Speculative calls, e.g. the eager pages of a large fan-out, are reserved up front with a single atomic script, and
+ * the calls made within the reservation consume it instead of being counted again.
+ * <p />
+ * The quota only protects the upstream's bill, so it fails open: while Redis is unreachable, calls are counted by a
+ * local counter seeded with the last known usage, which keeps enforcing the limits approximately.
+ * <p />
+ * The calls made today and the rejected calls are published as the {@code movieapp.upstream.quota.used} gauge and the
+ * {@code movieapp.upstream.quota.rejected} counter, tagged with the upstream's name
+ */
+public class DailyQuotaGovernor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DailyQuotaGovernor.class);
+
+    private static final String QUOTA_KEY_TEMPLATE = "movieapp:quota:%s:%s";
+    private static final Duration QUOTA_KEY_TTL = Duration.ofDays(2);
+    private static final String RESERVATION_CONTEXT_KEY_TEMPLATE = DailyQuotaGovernor.class.getName().concat(".reservation.%s");
+
+    /**
+     * Reserves up to ARGV[1] calls, without letting the usage of KEYS[1] exceed ARGV[2], and returns the reserved calls
+     */
+    private static final RedisScript<Long> RESERVATION_SCRIPT = RedisScript.of("""
+            local usage = tonumber(redis.call('GET', KEYS[1]) or '0')
+            local reserved = math.max(0, math.min(tonumber(ARGV[1]), tonumber(ARGV[2]) - usage))
+            if reserved > 0 then
+                redis.call('INCRBY', KEYS[1], reserved)
+                if redis.call('TTL', KEYS[1]) < 0 then
+                    redis.call('EXPIRE', KEYS[1], ARGV[3])
+                end
+            end
+            return reserved
+            """, Long.class);
+
+    private static final String USED_METRIC = "movieapp.upstream.quota.used";
+    private static final String REJECTED_METRIC = "movieapp.upstream.quota.rejected";
+    private static final String UPSTREAM_TAG = "upstream";
+
+    private final String upstream;
+    private final long dailyLimit;
+    private final long backgroundLimit;
+    private final ReactiveStringRedisTemplate reactiveStringRedisTemplate;
+    private final AtomicLong lastKnownUsage = new AtomicLong();
+    private final ConcurrentMap<String, AtomicLong> fallbackUsages = new ConcurrentHashMap<>();
+    private final String reservationContextKey;
+    private final Counter rejectedCounter;
+
+    public DailyQuotaGovernor(final String upstream,
+                              final QuotaProperties.Quota properties,
+                              final ReactiveStringRedisTemplate reactiveStringRedisTemplate,
+                              final MeterRegistry meterRegistry) {
+        this.upstream = upstream;
+        this.dailyLimit = properties.getDailyLimit();
+        this.backgroundLimit = (long) (properties.getDailyLimit() * (1 - properties.getInteractiveReserveRatio()));
+        this.reactiveStringRedisTemplate = reactiveStringRedisTemplate;
+        this.reservationContextKey = RESERVATION_CONTEXT_KEY_TEMPLATE.formatted(upstream);
+
+        Gauge.builder(USED_METRIC, this.lastKnownUsage, AtomicLong::get)
+                .description("Number of calls made to the upstream today")
+                .tag(UPSTREAM_TAG, upstream)
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder(REJECTED_METRIC)
+                .description("Number of calls rejected because the daily quota of the upstream ran low")
+                .tag(UPSTREAM_TAG, upstream)
+                .register(meterRegistry);
+    }
+
+    public String getUpstream() {
+        return this.upstream;
+    }
+
+    /**
+     * @return a WebClient filter counting every exchange against the quota
+     */
+    public ExchangeFilterFunction asFilter() {
+        return (request, next) -> this.govern(next.exchange(request));
+    }
+
+    public <T> Mono<T> govern(final Mono<T> call) {
+        return Mono.deferContextual(context -> {
+            final boolean isReserved = context.<Object>getOrEmpty(this.reservationContextKey)
+                    .filter(Reservation.class::isInstance)
+                    .map(Reservation.class::cast)
+                    .filter(Reservation::tryConsume)
+                    .isPresent();
+            if (isReserved) {
+                return call;
+            }
+
+            final RequestPriority priority = RequestPriority.from(context);
+            final long limit = priority == RequestPriority.INTERACTIVE ? this.dailyLimit : this.backgroundLimit;
+            final String key = quotaKey();
+
+            return this.reactiveStringRedisTemplate.opsForValue()
+                    .increment(key)
+                    .flatMap(usage -> usage == 1
+                            ? this.reactiveStringRedisTemplate.expire(key, QUOTA_KEY_TTL).thenReturn(usage)
+                            : Mono.just(usage))
+                    .flatMap(usage -> {
+                        if (usage <= limit) {
+                            this.lastKnownUsage.set(usage);
+                            return Mono.just(true);
+                        }
+
+                        return this.reactiveStringRedisTemplate.opsForValue()
+                                .decrement(key)
+                                .doOnNext(this.lastKnownUsage::set)
+                                .thenReturn(false);
+                    })
+                    .onErrorResume(error -> {
+                        LOGGER.warn("Counting calls to {} locally, as the quota could not be read due to: {}",
+                                    this.upstream, error.getMessage());
+                        return Mono.just(this.tryCountLocally(key, limit));
+                    })
+                    .flatMap(isAdmitted -> {
+                        if (isAdmitted) {
+                            return call;
+                        }
+
+                        LOGGER.warn("Rejecting {} call to {}: daily quota exhausted", priority, this.upstream);
+                        this.rejectedCounter.increment();
+
+                        return Mono.error(new UpstreamQuotaExhaustedException(this.upstream));
+                    });
+        });
+    }
+
+    /**
+     * Reserves as many speculative calls, e.g. eager pages of a large fan-out, as fit in today's quota without eating
+     * into the interactive reserve, capped at {@code requestedCalls}, then runs the fan-out built for the reserved
+     * calls. The calls of the fan-out consume the reservation, and the calls it did not make are given back once it
+     * terminates
+     *
+     * @param fanOut builds the fan-out from the number of reserved calls
+     */
+    public <T> Flux<T> withSpeculativeCalls(final int requestedCalls, final IntFunction<Flux<T>> fanOut) {
+        if (requestedCalls <= 0) {
+            return fanOut.apply(0);
+        }
+
+        final String key = quotaKey();
+
+        return this.reactiveStringRedisTemplate.execute(RESERVATION_SCRIPT, List.of(key), List.of(
+                        String.valueOf(requestedCalls),
+                        String.valueOf(this.backgroundLimit),
+                        String.valueOf(QUOTA_KEY_TTL.toSeconds())))
+                .next()
+                .map(Long::intValue)
+                .map(reservedCalls -> new Reservation(key, reservedCalls, false))
+                .onErrorResume(error -> {
+                    LOGGER.warn("Reserving speculative calls to {} locally, as the quota could not be read due to: {}",
+                                this.upstream, error.getMessage());
+                    return Mono.just(new Reservation(key, this.reserveLocally(key, requestedCalls), true));
+                })
+                .flatMapMany(reservation -> fanOut.apply(reservation.reservedCalls)
+                        .contextWrite(Context.of(this.reservationContextKey, reservation))
+                        .doFinally(signal -> this.release(reservation)));
+    }
+
+    /**
+     * Gives the unused calls of a reservation back to today's quota
+     */
+    private void release(final Reservation reservation) {
+        final int unusedCalls = reservation.remainingCalls.getAndSet(0);
+        if (unusedCalls == 0) {
+            return;
+        }
+
+        if (reservation.isLocal) {
+            this.fallbackUsageOf(reservation.key).addAndGet(-unusedCalls);
+            return;
+        }
+
+        this.reactiveStringRedisTemplate.opsForValue()
+                .decrement(reservation.key, unusedCalls)
+                .subscribe(this.lastKnownUsage::set, error -> LOGGER.warn(
+                        "Could not give back {} reserved calls to {} due to: {}", unusedCalls, this.upstream, error.getMessage()));
+    }
+
+    private boolean tryCountLocally(final String key, final long limit) {
+        final AtomicLong fallbackUsage = this.fallbackUsageOf(key);
+        if (fallbackUsage.incrementAndGet() <= limit) {
+            return true;
+        }
+
+        fallbackUsage.decrementAndGet();
+        return false;
+    }
+
+    private int reserveLocally(final String key, final int requestedCalls) {
+        final AtomicLong fallbackUsage = this.fallbackUsageOf(key);
+        final long usageBefore = fallbackUsage.getAndUpdate(
+                usage -> usage + Math.max(0, Math.min(requestedCalls, this.backgroundLimit - usage)));
+
+        return (int) Math.max(0, Math.min(requestedCalls, this.backgroundLimit - usageBefore));
+    }
+
+    /**
+     * @return the local count of today's calls, seeded with the last usage read from Redis
+     */
+    private AtomicLong fallbackUsageOf(final String key) {
+        this.fallbackUsages.keySet().removeIf(fallbackKey -> !fallbackKey.equals(key));
+        return this.fallbackUsages.computeIfAbsent(key, ignored -> new AtomicLong(this.lastKnownUsage.get()));
+    }
+
+    private String quotaKey() {
+        return QUOTA_KEY_TEMPLATE.formatted(this.upstream, LocalDate.now(ZoneOffset.UTC).format(DateTimeFormatter.ISO_DATE));
+    }
+
+    /**
+     * Speculative calls reserved in the quota of a day, either in Redis or, while Redis is unreachable, locally
+     */
+    private static final class Reservation {
+        private final String key;
+        private final int reservedCalls;
+        private final boolean isLocal;
+        private final AtomicInteger remainingCalls;
+
+        private Reservation(final String key, final int reservedCalls, final boolean isLocal) {
+            this.key = key;
+            this.reservedCalls = reservedCalls;
+            this.isLocal = isLocal;
+            this.remainingCalls = new AtomicInteger(reservedCalls);
+        }
+
+        private boolean tryConsume() {
+            return this.remainingCalls.getAndUpdate(remaining -> Math.max(0, remaining - 1)) > 0;
+        }
+    }
+}
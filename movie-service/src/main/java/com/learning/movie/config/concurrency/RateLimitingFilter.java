@@ -0,0 +1,90 @@
+package com.learning.movie.config.concurrency;
+
+import com.learning.movie.config.properties.RateLimiterProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Paces the requests of a {@link org.springframework.web.reactive.function.client.WebClient} with a token bucket
+ * refilled at {@code rate} tokens per second and holding at most {@code burst} tokens
+ * <p />
+ * Every request reserves a token up front, which may leave the bucket in debt, and is delayed without blocking until
+ * its token would have been refilled, so requests are never rejected but queue up in arrival order. A request
+ * cancelled while waiting gives its token back. The time spent waiting is published as the
+ * {@code movieapp.upstream.ratelimit.wait} timer, tagged with the upstream's name
+ * <p />
+ * The bucket is shared by every caller of the WebClient within this instance, i.e. the configured rate applies per
+ * instance of the service
+ */
+public class RateLimitingFilter implements ExchangeFilterFunction {
+    private static final String WAIT_METRIC = "movieapp.upstream.ratelimit.wait";
+    private static final String UPSTREAM_TAG = "upstream";
+
+    private final double tokensPerNano;
+    private final double burst;
+    private final Timer waitTimer;
+
+    private double availableTokens;
+    private long lastRefillNanos;
+
+    public RateLimitingFilter(final String upstream,
+                              final RateLimiterProperties.RateLimit properties,
+                              final MeterRegistry meterRegistry) {
+        this.tokensPerNano = properties.getRate() / TimeUnit.SECONDS.toNanos(1);
+        this.burst = properties.getBurst();
+        this.availableTokens = this.burst;
+        this.lastRefillNanos = System.nanoTime();
+        this.waitTimer = Timer.builder(WAIT_METRIC)
+                .description("Time requests waited for a token before being sent to the upstream")
+                .tag(UPSTREAM_TAG, upstream)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(final ClientRequest request, final ExchangeFunction next) {
+        return Mono.defer(() -> {
+            final long waitNanos = this.reserveToken();
+            this.waitTimer.record(waitNanos, TimeUnit.NANOSECONDS);
+
+            if (waitNanos == 0) {
+                return next.exchange(request);
+            }
+
+            final AtomicBoolean isSent = new AtomicBoolean();
+
+            return Mono.delay(Duration.ofNanos(waitNanos))
+                    .doOnNext(tick -> isSent.set(true))
+                    .doOnCancel(() -> {
+                        if (!isSent.get()) {
+                            this.returnToken();
+                        }
+                    })
+                    .then(Mono.defer(() -> next.exchange(request)));
+        });
+    }
+
+    /**
+     * @return how long the caller must wait before its token is available, in nanoseconds
+     */
+    private synchronized long reserveToken() {
+        final long now = System.nanoTime();
+        this.availableTokens = Math.min(this.burst, this.availableTokens + (now - this.lastRefillNanos) * this.tokensPerNano);
+        this.lastRefillNanos = now;
+        this.availableTokens--;
+
+        return this.availableTokens >= 0 ? 0 : (long) Math.ceil(-this.availableTokens / this.tokensPerNano);
+    }
+
+    private synchronized void returnToken() {
+        this.availableTokens = Math.min(this.burst, this.availableTokens + 1);
+    }
+}
@@ -0,0 +1,161 @@
+package com.learning.movie.config.concurrency;
+
+import com.learning.movie.config.properties.HedgingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hedges an upstream call: when the first attempt has not answered within the observed latency percentile, an
+ * identical second attempt is sent and whichever answers first wins, the other one being cancelled. A failed attempt
+ * never wins over one that may still answer, so a hedged call only fails when both attempts fail, with the error of
+ * the first attempt
+ * <p />
+ * The delay is the configured percentile, e.g. p95, of the latencies of the last first attempts, and no call is hedged
+ * until enough of them were observed. Every call earns {@code max-hedge-ratio} of a hedge and every hedge spends a whole
+ * one, so hedges never exceed that ratio of the calls. The hedged calls and which attempt won them are counted in
+ * {@code movieapp.upstream.hedge.requests}, and the current delay is published as {@code movieapp.upstream.hedge.delay},
+ * both tagged with the operation's name
+ */
+public class RequestHedger {
+    private static final String REQUESTS_METRIC = "movieapp.upstream.hedge.requests";
+    private static final String DELAY_METRIC = "movieapp.upstream.hedge.delay";
+    private static final String OPERATION_TAG = "operation";
+    private static final String OUTCOME_TAG = "outcome";
+    private static final int RECOMPUTE_INTERVAL = 20; // Samples between recomputations of the percentile
+    private static final double MAX_HEDGE_BALANCE = 5;
+
+    private final HedgingProperties.Hedge properties;
+    private final Counter primaryWonCounter;
+    private final Counter hedgeWonCounter;
+
+    private final long[] latencies;
+    private int latencyIndex;
+    private int latencyCount;
+    private int samplesSinceRecompute;
+    private long hedgeDelayNanos = -1; // No hedging until enough latencies were observed
+    private double hedgeBalance;
+
+    public RequestHedger(final String operation,
+                         final HedgingProperties.Hedge properties,
+                         final MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.latencies = new long[properties.getWindowSize()];
+        this.primaryWonCounter = Counter.builder(REQUESTS_METRIC)
+                .description("Number of hedged calls, by the attempt that answered first")
+                .tags(OPERATION_TAG, operation, OUTCOME_TAG, "primary_won")
+                .register(meterRegistry);
+        this.hedgeWonCounter = Counter.builder(REQUESTS_METRIC)
+                .description("Number of hedged calls, by the attempt that answered first")
+                .tags(OPERATION_TAG, operation, OUTCOME_TAG, "hedge_won")
+                .register(meterRegistry);
+
+        Gauge.builder(DELAY_METRIC, this, hedger -> hedger.getHedgeDelayNanos() / 1_000_000d)
+                .description("Delay after which a call is hedged, in milliseconds, or -1 while not enough latencies were observed")
+                .tag(OPERATION_TAG, operation)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param call the upstream call, which must be cold and idempotent, so that subscribing to it twice sends the
+     *             request twice
+     */
+    public <T> Mono<T> hedge(final Mono<T> call) {
+        if (!this.properties.isEnabled()) {
+            return call;
+        }
+
+        return Mono.defer(() -> {
+            final long hedgeDelayNanos = this.onCall();
+            final long startNanos = System.nanoTime();
+            final AtomicBoolean isHedged = new AtomicBoolean();
+            final AtomicBoolean isRecorded = new AtomicBoolean();
+            final AtomicReference<Throwable> primaryError = new AtomicReference<>();
+
+            final Mono<T> primary = call
+                    .doOnNext(value -> {
+                        if (isHedged.get()) {
+                            this.primaryWonCounter.increment();
+                        }
+                    })
+                    .doFinally(signal -> {
+                        // A primary cancelled by a winning hedge is recorded at the time it lost, as a lower bound
+                        if (isRecorded.compareAndSet(false, true)) {
+                            this.recordLatency(System.nanoTime() - startNanos);
+                        }
+                    });
+
+            if (hedgeDelayNanos < 0) {
+                return primary;
+            }
+
+            // An attempt answering without a value still wins, hence the optionals, as only errors lose to the other attempt
+            final Mono<Optional<T>> hedge = Mono.delay(Duration.ofNanos(hedgeDelayNanos))
+                    .flatMap(tick -> {
+                        if (!this.tryHedge()) {
+                            return Mono.empty();
+                        }
+
+                        isHedged.set(true);
+                        return call.doOnNext(value -> this.hedgeWonCounter.increment())
+                                .map(Optional::of)
+                                .defaultIfEmpty(Optional.empty());
+                    });
+
+            return Mono.firstWithValue(
+                            primary.doOnError(primaryError::set)
+                                    .map(Optional::of)
+                                    .defaultIfEmpty(Optional.empty()),
+                            hedge)
+                    .onErrorMap(NoSuchElementException.class,
+                                error -> Optional.ofNullable(primaryError.get()).orElse(error))
+                    .flatMap(Mono::justOrEmpty);
+        });
+    }
+
+    private synchronized long getHedgeDelayNanos() {
+        return this.hedgeDelayNanos;
+    }
+
+    /**
+     * @return the delay after which the call may be hedged, or -1 if it may not
+     */
+    private synchronized long onCall() {
+        this.hedgeBalance = Math.min(MAX_HEDGE_BALANCE, this.hedgeBalance + this.properties.getMaxHedgeRatio());
+        return this.hedgeDelayNanos;
+    }
+
+    private synchronized boolean tryHedge() {
+        if (this.hedgeBalance < 1) {
+            return false;
+        }
+
+        this.hedgeBalance--;
+        return true;
+    }
+
+    private synchronized void recordLatency(final long latencyNanos) {
+        this.latencies[this.latencyIndex] = latencyNanos;
+        this.latencyIndex = (this.latencyIndex + 1) % this.latencies.length;
+        this.latencyCount = Math.min(this.latencies.length, this.latencyCount + 1);
+
+        if (this.latencyCount < this.properties.getMinSamples() || ++this.samplesSinceRecompute < RECOMPUTE_INTERVAL) {
+            return;
+        }
+
+        this.samplesSinceRecompute = 0;
+        final long[] sortedLatencies = Arrays.copyOf(this.latencies, this.latencyCount);
+        Arrays.sort(sortedLatencies);
+        final int percentileIndex = (int) Math.ceil(this.properties.getPercentile() * this.latencyCount) - 1;
+        this.hedgeDelayNanos = Math.max(this.properties.getMinDelay().toNanos(),
+                                        sortedLatencies[Math.max(0, percentileIndex)]);
+    }
+}
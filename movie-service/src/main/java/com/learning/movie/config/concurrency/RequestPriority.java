@@ -0,0 +1,27 @@
+package com.learning.movie.config.concurrency;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Class of an upstream call, carried by the Reactor context of the pipeline making the call. Calls are
+ * {@link #INTERACTIVE} unless the pipeline is marked otherwise, e.g. {@code .contextWrite(RequestPriority.BACKGROUND.asContext())}
+ */
+public enum RequestPriority {
+
+    /** Calls a user is waiting for */
+    INTERACTIVE,
+
+    /** Calls made on behalf of schedulers, prefetches and cache revalidations, which nobody is waiting for */
+    BACKGROUND;
+
+    private static final String CONTEXT_KEY = RequestPriority.class.getName();
+
+    public ContextView asContext() {
+        return Context.of(CONTEXT_KEY, this);
+    }
+
+    public static RequestPriority from(final ContextView context) {
+        return context.getOrDefault(CONTEXT_KEY, INTERACTIVE);
+    }
+}
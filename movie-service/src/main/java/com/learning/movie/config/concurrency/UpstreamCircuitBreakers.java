@@ -0,0 +1,42 @@
+package com.learning.movie.config.concurrency;
+
+import com.learning.movie.config.properties.CircuitBreakerProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.info.Info;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the circuit breaker of every upstream and exposes their states under {@code circuitBreakers} in the actuator's
+ * info endpoint
+ */
+@Component
+public class UpstreamCircuitBreakers implements InfoContributor {
+    private final CircuitBreakerProperties circuitBreakerProperties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, CircuitBreakerFilter> circuitBreakers = new ConcurrentHashMap<>();
+
+    @Autowired
+    public UpstreamCircuitBreakers(final CircuitBreakerProperties circuitBreakerProperties,
+                                   final MeterRegistry meterRegistry) {
+        this.circuitBreakerProperties = circuitBreakerProperties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public CircuitBreakerFilter forUpstream(final String upstream) {
+        return this.circuitBreakers.computeIfAbsent(upstream, name -> new CircuitBreakerFilter(
+                name, this.circuitBreakerProperties.getUpstream(name), this.meterRegistry));
+    }
+
+    @Override
+    public void contribute(final Info.Builder builder) {
+        final Map<String, Object> details = new TreeMap<>();
+        this.circuitBreakers.forEach((upstream, circuitBreaker) -> details.put(upstream, circuitBreaker.describe()));
+        builder.withDetail("circuitBreakers", details);
+    }
+}
@@ -0,0 +1,77 @@
+package com.learning.movie.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Expiry settings of every Redis cache namespace, e.g. {@code movieapp.cache.namespaces.search.ttl=1d}
+ * <p />
+ * Entries are evicted by Redis once their {@code ttl} elapses, while entries older than their {@code soft-ttl} are
+ * still served but refreshed in the background. A namespace without a {@code soft-ttl} is never refreshed ahead of its
+ * expiry
+ */
+@Component
+@ConfigurationProperties(prefix = "movieapp.cache")
+public class CacheNamespaceProperties {
+    public static final String SEARCH_NAMESPACE = "search";
+    public static final String NEWLY_RELEASED_MOVIES_NAMESPACE = "newly-released-movies";
+    public static final String FEDERATED_SEARCH_NAMESPACE = "federated-search";
+    public static final String WATCH_PROVIDERS_NAMESPACE = "watch-providers";
+
+    private static final Duration DEFAULT_TTL = Duration.ofDays(1);
+
+    private Map<String, CacheNamespace> namespaces = new HashMap<>();
+
+    public Map<String, CacheNamespace> getNamespaces() {
+        return namespaces;
+    }
+
+    public void setNamespaces(Map<String, CacheNamespace> namespaces) {
+        this.namespaces = namespaces;
+    }
+
+    public CacheNamespace getNamespace(final String namespace) {
+        return this.namespaces.getOrDefault(namespace, new CacheNamespace());
+    }
+
+    public static class CacheNamespace {
+        private Duration ttl = DEFAULT_TTL;
+        private Duration softTtl;
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public Duration getSoftTtl() {
+            return softTtl == null ? ttl : softTtl;
+        }
+
+        public void setSoftTtl(Duration softTtl) {
+            this.softTtl = softTtl;
+        }
+
+        /**
+         * @param age the time elapsed since the entry was cached
+         * @return whether the entry outlived its soft TTL and should be refreshed
+         */
+        public boolean isStale(final Duration age) {
+            return age.compareTo(this.getSoftTtl()) >= 0;
+        }
+
+        /**
+         * @param age the time elapsed since the entry was cached
+         * @return whether the entry outlived its TTL and must no longer be served
+         */
+        public boolean isExpired(final Duration age) {
+            return age.compareTo(this.ttl) >= 0;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.learning.movie.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Circuit breaker and bulkhead of every upstream API, e.g. {@code movieapp.circuit-breaker.upstreams.tmdb.open-duration=1m}
+ * <p />
+ * The breaker opens once {@code failure-rate-threshold} of the last {@code sliding-window-size} calls failed, provided
+ * at least {@code minimum-calls} were made. It rejects every call for {@code open-duration}, then lets
+ * {@code half-open-trial-calls} through and closes again if they all succeed. The bulkhead rejects calls beyond
+ * {@code max-concurrent-calls} in flight
+ */
+@Component
+@ConfigurationProperties(prefix = "movieapp.circuit-breaker")
+public class CircuitBreakerProperties {
+    private Map<String, Breaker> upstreams = new HashMap<>();
+
+    public Map<String, Breaker> getUpstreams() {
+        return upstreams;
+    }
+
+    public void setUpstreams(Map<String, Breaker> upstreams) {
+        this.upstreams = upstreams;
+    }
+
+    public Breaker getUpstream(final String upstream) {
+        return this.upstreams.getOrDefault(upstream, new Breaker());
+    }
+
+    public static class Breaker {
+        private double failureRateThreshold = 0.5;
+        private int slidingWindowSize = 20;
+        private int minimumCalls = 10;
+        private Duration openDuration = Duration.ofSeconds(30);
+        private int halfOpenTrialCalls = 3;
+        private int maxConcurrentCalls = 50;
+
+        public double getFailureRateThreshold() {
+            return failureRateThreshold;
+        }
+
+        public void setFailureRateThreshold(double failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+        }
+
+        public int getSlidingWindowSize() {
+            return slidingWindowSize;
+        }
+
+        public void setSlidingWindowSize(int slidingWindowSize) {
+            this.slidingWindowSize = slidingWindowSize;
+        }
+
+        public int getMinimumCalls() {
+            return minimumCalls;
+        }
+
+        public void setMinimumCalls(int minimumCalls) {
+            this.minimumCalls = minimumCalls;
+        }
+
+        public Duration getOpenDuration() {
+            return openDuration;
+        }
+
+        public void setOpenDuration(Duration openDuration) {
+            this.openDuration = openDuration;
+        }
+
+        public int getHalfOpenTrialCalls() {
+            return halfOpenTrialCalls;
+        }
+
+        public void setHalfOpenTrialCalls(int halfOpenTrialCalls) {
+            this.halfOpenTrialCalls = halfOpenTrialCalls;
+        }
+
+        public int getMaxConcurrentCalls() {
+            return maxConcurrentCalls;
+        }
+
+        public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+            this.maxConcurrentCalls = maxConcurrentCalls;
+        }
+    }
+}
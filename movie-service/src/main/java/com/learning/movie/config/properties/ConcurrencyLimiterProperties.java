@@ -0,0 +1,94 @@
+package com.learning.movie.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Adaptive concurrency limits of every upstream API, e.g. {@code movieapp.concurrency.upstreams.omdb.max-limit=32}
+ * <p />
+ * The limit of an upstream starts at {@code initial-limit} and moves between {@code min-limit} and {@code max-limit}:
+ * it grows while calls complete within {@code latency-threshold} and is multiplied by {@code backoff-ratio} whenever a
+ * call is slower, throttled or fails to reach the upstream. Background calls may only use {@code background-limit-ratio}
+ * of the current limit
+ */
+@Component
+@ConfigurationProperties(prefix = "movieapp.concurrency")
+public class ConcurrencyLimiterProperties {
+    public static final String OMDB_UPSTREAM = "omdb";
+    public static final String TMDB_UPSTREAM = "tmdb";
+
+    private Map<String, Limiter> upstreams = new HashMap<>();
+
+    public Map<String, Limiter> getUpstreams() {
+        return upstreams;
+    }
+
+    public void setUpstreams(Map<String, Limiter> upstreams) {
+        this.upstreams = upstreams;
+    }
+
+    public Limiter getUpstream(final String upstream) {
+        return this.upstreams.getOrDefault(upstream, new Limiter());
+    }
+
+    public static class Limiter {
+        private int initialLimit = 10;
+        private int minLimit = 1;
+        private int maxLimit = 50;
+        private Duration latencyThreshold = Duration.ofSeconds(2);
+        private double backoffRatio = 0.5;
+        private double backgroundLimitRatio = 0.5;
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public Duration getLatencyThreshold() {
+            return latencyThreshold;
+        }
+
+        public void setLatencyThreshold(Duration latencyThreshold) {
+            this.latencyThreshold = latencyThreshold;
+        }
+
+        public double getBackoffRatio() {
+            return backoffRatio;
+        }
+
+        public void setBackoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+        }
+
+        public double getBackgroundLimitRatio() {
+            return backgroundLimitRatio;
+        }
+
+        public void setBackgroundLimitRatio(double backgroundLimitRatio) {
+            this.backgroundLimitRatio = backgroundLimitRatio;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.learning.movie.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "movieapp.cache.conditional")
+public class ConditionalRequestCacheProperties {
+    private long maximumWeight = 64L * 1024 * 1024;           // Maximum number of body bytes held per cache
+    private int maxBodySize = 1024 * 1024;                    // Larger bodies are not stored
+    private Duration expireAfterAccess = Duration.ofHours(6);
+
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    public void setMaximumWeight(long maximumWeight) {
+        this.maximumWeight = maximumWeight;
+    }
+
+    public int getMaxBodySize() {
+        return maxBodySize;
+    }
+
+    public void setMaxBodySize(int maxBodySize) {
+        this.maxBodySize = maxBodySize;
+    }
+
+    public Duration getExpireAfterAccess() {
+        return expireAfterAccess;
+    }
+
+    public void setExpireAfterAccess(Duration expireAfterAccess) {
+        this.expireAfterAccess = expireAfterAccess;
+    }
+}
@@ -0,0 +1,93 @@
+package com.learning.movie.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Request hedging of latency-sensitive upstream calls, e.g. {@code movieapp.hedging.operations.tmdb-movie-details.enabled=true}
+ * <p />
+ * Hedging is opt-in per operation. Once {@code min-samples} latencies were observed, a call that has not answered
+ * within the {@code percentile} of the last {@code window-size} latencies, and at least {@code min-delay}, is sent a
+ * second time and the first answer wins. Hedges are capped at {@code max-hedge-ratio} of the calls
+ */
+@Component
+@ConfigurationProperties(prefix = "movieapp.hedging")
+public class HedgingProperties {
+    public static final String TMDB_MOVIE_DETAILS_OPERATION = "tmdb-movie-details";
+    public static final String TMDB_WATCH_PROVIDERS_OPERATION = "tmdb-watch-providers";
+
+    private Map<String, Hedge> operations = new HashMap<>();
+
+    public Map<String, Hedge> getOperations() {
+        return operations;
+    }
+
+    public void setOperations(Map<String, Hedge> operations) {
+        this.operations = operations;
+    }
+
+    public Hedge getOperation(final String operation) {
+        return this.operations.getOrDefault(operation, new Hedge());
+    }
+
+    public static class Hedge {
+        private boolean enabled = false;
+        private double percentile = 0.95;
+        private double maxHedgeRatio = 0.05;
+        private Duration minDelay = Duration.ofMillis(50);
+        private int windowSize = 200;
+        private int minSamples = 50;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getPercentile() {
+            return percentile;
+        }
+
+        public void setPercentile(double percentile) {
+            this.percentile = percentile;
+        }
+
+        public double getMaxHedgeRatio() {
+            return maxHedgeRatio;
+        }
+
+        public void setMaxHedgeRatio(double maxHedgeRatio) {
+            this.maxHedgeRatio = maxHedgeRatio;
+        }
+
+        public Duration getMinDelay() {
+            return minDelay;
+        }
+
+        public void setMinDelay(Duration minDelay) {
+            this.minDelay = minDelay;
+        }
+
+        public int getWindowSize() {
+            return windowSize;
+        }
+
+        public void setWindowSize(int windowSize) {
+            this.windowSize = windowSize;
+        }
+
+        public int getMinSamples() {
+            return minSamples;
+        }
+
+        public void setMinSamples(int minSamples) {
+            this.minSamples = minSamples;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.learning.movie.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Daily request quotas of the upstream APIs, e.g. {@code movieapp.quota.upstreams.omdb.daily-limit=1000}
+ * <p />
+ * {@code interactive-reserve-ratio} of the daily limit is reserved for interactive calls: background and speculative
+ * calls stop once the rest of the quota is used up
+ */
+@Component
+@ConfigurationProperties(prefix = "movieapp.quota")
+public class QuotaProperties {
+    public static final String OMDB_UPSTREAM = "omdb";
+
+    private Map<String, Quota> upstreams = new HashMap<>();
+
+    public Map<String, Quota> getUpstreams() {
+        return upstreams;
+    }
+
+    public void setUpstreams(Map<String, Quota> upstreams) {
+        this.upstreams = upstreams;
+    }
+
+    public Quota getUpstream(final String upstream) {
+        return this.upstreams.getOrDefault(upstream, new Quota());
+    }
+
+    public static class Quota {
+        private long dailyLimit = 1000;
+        private double interactiveReserveRatio = 0.2;
+
+        public long getDailyLimit() {
+            return dailyLimit;
+        }
+
+        public void setDailyLimit(long dailyLimit) {
+            this.dailyLimit = dailyLimit;
+        }
+
+        public double getInteractiveReserveRatio() {
+            return interactiveReserveRatio;
+        }
+
+        public void setInteractiveReserveRatio(double interactiveReserveRatio) {
+            this.interactiveReserveRatio = interactiveReserveRatio;
+        }
+    }
+}
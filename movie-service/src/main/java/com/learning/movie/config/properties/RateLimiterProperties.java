@@ -0,0 +1,53 @@
+package com.learning.movie.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Client-side rate limits of the upstream APIs, e.g. {@code movieapp.ratelimit.upstreams.tmdb.rate=40}
+ * <p />
+ * Requests to an upstream are paced to {@code rate} requests per second, with bursts of up to {@code burst} requests.
+ * Upstreams without a rate limit are not paced
+ */
+@Component
+@ConfigurationProperties(prefix = "movieapp.ratelimit")
+public class RateLimiterProperties {
+    private Map<String, RateLimit> upstreams = new HashMap<>();
+
+    public Map<String, RateLimit> getUpstreams() {
+        return upstreams;
+    }
+
+    public void setUpstreams(Map<String, RateLimit> upstreams) {
+        this.upstreams = upstreams;
+    }
+
+    public Optional<RateLimit> getUpstream(final String upstream) {
+        return Optional.ofNullable(this.upstreams.get(upstream));
+    }
+
+    public static class RateLimit {
+        private double rate = 10; // Requests per second
+        private int burst = 10;
+
+        public double getRate() {
+            return rate;
+        }
+
+        public void setRate(double rate) {
+            this.rate = rate;
+        }
+
+        public int getBurst() {
+            return burst;
+        }
+
+        public void setBurst(int burst) {
+            this.burst = burst;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.learning.movie.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "movieapp.search")
+public class SearchProperties {
+    private int maxEagerPages = 10; // Maximum number of OMDb pages fetched per search request
+    private int prefetchPages = 2; // Number of pages prefetched after a missed page, 0 to disable prefetching
+    private Duration federatedLatencyBudget = Duration.ofMillis(800); // Time a federated search waits for every source
+    private int maxSuggestions = 10; // Maximum number of titles returned per suggestion
+    private int maxSuggestionTitles = 500_000; // Maximum number of titles held by the suggestion index
+    private int maxCorrectionEditDistance = 3; // Maximum number of edits between a misspelled query and its correction
+    private int minCorrectionQueryLength = 4; // Minimum length of a query for it to be corrected
+
+    public int getMaxEagerPages() {
+        return maxEagerPages;
+    }
+
+    public void setMaxEagerPages(int maxEagerPages) {
+        this.maxEagerPages = maxEagerPages;
+    }
+
+    public int getPrefetchPages() {
+        return prefetchPages;
+    }
+
+    public void setPrefetchPages(int prefetchPages) {
+        this.prefetchPages = prefetchPages;
+    }
+
+    public Duration getFederatedLatencyBudget() {
+        return federatedLatencyBudget;
+    }
+
+    public void setFederatedLatencyBudget(Duration federatedLatencyBudget) {
+        this.federatedLatencyBudget = federatedLatencyBudget;
+    }
+
+    public int getMaxSuggestions() {
+        return maxSuggestions;
+    }
+
+    public void setMaxSuggestions(int maxSuggestions) {
+        this.maxSuggestions = maxSuggestions;
+    }
+
+    public int getMaxSuggestionTitles() {
+        return maxSuggestionTitles;
+    }
+
+    public void setMaxSuggestionTitles(int maxSuggestionTitles) {
+        this.maxSuggestionTitles = maxSuggestionTitles;
+    }
+
+    public int getMaxCorrectionEditDistance() {
+        return maxCorrectionEditDistance;
+    }
+
+    public void setMaxCorrectionEditDistance(int maxCorrectionEditDistance) {
+        this.maxCorrectionEditDistance = maxCorrectionEditDistance;
+    }
+
+    public int getMinCorrectionQueryLength() {
+        return minCorrectionQueryLength;
+    }
+
+    public void setMinCorrectionQueryLength(int minCorrectionQueryLength) {
+        this.minCorrectionQueryLength = minCorrectionQueryLength;
+    }
+}
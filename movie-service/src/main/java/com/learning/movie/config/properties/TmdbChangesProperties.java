@@ -0,0 +1,51 @@
+package com.learning.movie.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Synchronization of the TMDB caches with TMDB's movie changes feed, see
+ * {@link com.learning.movie.service.scheduler.TmdbChangesScheduler}
+ */
+@Component
+@ConfigurationProperties(prefix = "movieapp.tmdb-changes")
+public class TmdbChangesProperties {
+    private boolean enabled = true;
+    private String cron = "0 */10 * * * ?";
+    private Duration initialLookback = Duration.ofDays(1); // How far back the first synchronization starts
+    private int evictionConcurrency = 16;                  // Maximum number of changed movies evicted concurrently
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getCron() {
+        return cron;
+    }
+
+    public void setCron(String cron) {
+        this.cron = cron;
+    }
+
+    public Duration getInitialLookback() {
+        return initialLookback;
+    }
+
+    public void setInitialLookback(Duration initialLookback) {
+        this.initialLookback = initialLookback;
+    }
+
+    public int getEvictionConcurrency() {
+        return evictionConcurrency;
+    }
+
+    public void setEvictionConcurrency(int evictionConcurrency) {
+        this.evictionConcurrency = evictionConcurrency;
+    }
+}
@@ -0,0 +1,27 @@
+package com.learning.movie.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "movieapp.tmdb-id-mapping")
+public class TmdbIdMappingProperties {
+    private long maximumSize = 100_000;  // Maximum number of mappings held in memory, per direction
+    private int resolveParallelism = 8;  // Maximum number of concurrent TMDB lookups per batch
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public int getResolveParallelism() {
+        return resolveParallelism;
+    }
+
+    public void setResolveParallelism(int resolveParallelism) {
+        this.resolveParallelism = resolveParallelism;
+    }
+}
@@ -0,0 +1,60 @@
+package com.learning.movie.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Expiry of cached TMDB movie details, which depends on how long ago the movie was released: details of recent and
+ * upcoming releases still change often, while those of catalog titles rarely do
+ */
+@Component
+@ConfigurationProperties(prefix = "movieapp.cache.tmdb-movie")
+public class TmdbMovieCacheProperties {
+    private Duration recentReleaseAge = Duration.ofDays(28);  // Movies released since then are recent releases
+    private Duration recentReleaseTtl = Duration.ofHours(1);  // Also applies to unreleased and undated movies
+    private Duration catalogAge = Duration.ofDays(365);       // Movies released before then are catalog titles
+    private Duration catalogTtl = Duration.ofDays(7);
+    private Duration ttl = Duration.ofDays(1);                // Applies to every other movie
+
+    public Duration getRecentReleaseAge() {
+        return recentReleaseAge;
+    }
+
+    public void setRecentReleaseAge(Duration recentReleaseAge) {
+        this.recentReleaseAge = recentReleaseAge;
+    }
+
+    public Duration getRecentReleaseTtl() {
+        return recentReleaseTtl;
+    }
+
+    public void setRecentReleaseTtl(Duration recentReleaseTtl) {
+        this.recentReleaseTtl = recentReleaseTtl;
+    }
+
+    public Duration getCatalogAge() {
+        return catalogAge;
+    }
+
+    public void setCatalogAge(Duration catalogAge) {
+        this.catalogAge = catalogAge;
+    }
+
+    public Duration getCatalogTtl() {
+        return catalogTtl;
+    }
+
+    public void setCatalogTtl(Duration catalogTtl) {
+        this.catalogTtl = catalogTtl;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+}
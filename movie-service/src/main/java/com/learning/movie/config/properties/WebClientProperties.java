@@ -4,78 +4,121 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
-
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Connection pool settings of every upstream API, e.g. {@code spring.web.reactive.webclient.upstreams.tmdb.max-connections=100}
+ * <p />
+ * Every upstream gets its own pool so that a slow upstream can only exhaust its own connections. Settings missing for
+ * an upstream fall back to the defaults below
+ */
 @Component
 @ConfigurationProperties(prefix = "spring.web.reactive.webclient")
 public class WebClientProperties {
-    private String connectionProviderName;
-    private int maxConnections = 50;
-    private long maxIdleTime = 2;         // In minutes
-    private long evictionThreshold = 10;  // In minutes
-    private int responseTimeout = 5;      // In seconds
-    private int connectionTimeout = 5000; // In milliseconds
-
-    public String getConnectionProviderName() {
-        return connectionProviderName;
-    }
+    public static final String OMDB_UPSTREAM = "omdb";
+    public static final String TMDB_UPSTREAM = "tmdb";
+    public static final String AUTH_SERVICE_UPSTREAM = "auth-service";
+    public static final String SENDGRID_UPSTREAM = "sendgrid";
+    public static final String OPENAI_UPSTREAM = "openai";
 
-    public void setConnectionProviderName(String connectionProviderName) {
-        this.connectionProviderName = connectionProviderName;
-    }
+    private Map<String, Pool> upstreams = new HashMap<>();
 
-    public int getMaxConnections() {
-        return maxConnections;
+    public Map<String, Pool> getUpstreams() {
+        return upstreams;
     }
 
-    public void setMaxConnections(int maxConnections) {
-        this.maxConnections = maxConnections;
+    public void setUpstreams(Map<String, Pool> upstreams) {
+        this.upstreams = upstreams;
     }
 
-    public long getMaxIdleTime() {
-        return maxIdleTime;
+    public Pool getUpstream(final String upstream) {
+        return this.upstreams.getOrDefault(upstream, new Pool());
     }
 
-    public void setMaxIdleTime(long maxIdleTime) {
-        this.maxIdleTime = maxIdleTime;
-    }
+    public static class Pool {
+        private int maxConnections = 50;
+        private int pendingAcquireMaxCount = 100; // Maximum number of requests waiting for a connection
+        private long pendingAcquireTimeout = 5000; // In milliseconds
+        private long maxIdleTime = 2;         // In minutes
+        private long evictionThreshold = 10;  // In minutes
+        private int responseTimeout = 5;      // In seconds
+        private int connectionTimeout = 5000; // In milliseconds
 
-    public long getEvictionThreshold() {
-        return evictionThreshold;
-    }
+        public int getMaxConnections() {
+            return maxConnections;
+        }
 
-    public void setEvictionThreshold(long evictionThreshold) {
-        this.evictionThreshold = evictionThreshold;
-    }
+        public void setMaxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
 
-    public int getResponseTimeout() {
-        return responseTimeout;
-    }
+        public int getPendingAcquireMaxCount() {
+            return pendingAcquireMaxCount;
+        }
 
-    public void setResponseTimeout(int responseTimeout) {
-        this.responseTimeout = responseTimeout;
-    }
+        public void setPendingAcquireMaxCount(int pendingAcquireMaxCount) {
+            this.pendingAcquireMaxCount = pendingAcquireMaxCount;
+        }
 
-    public int getConnectionTimeout() {
-        return connectionTimeout;
-    }
+        public long getPendingAcquireTimeout() {
+            return pendingAcquireTimeout;
+        }
 
-    public void setConnectionTimeout(int connectionTimeout) {
-        this.connectionTimeout = connectionTimeout;
-    }
+        public void setPendingAcquireTimeout(long pendingAcquireTimeout) {
+            this.pendingAcquireTimeout = pendingAcquireTimeout;
+        }
 
-    public Duration getMaxIdleTimeDuration() {
-        return Duration.ofMinutes(this.maxIdleTime);
-    }
+        public long getMaxIdleTime() {
+            return maxIdleTime;
+        }
 
-    public Duration getEvictionThresholdDuration() {
-        return Duration.ofMinutes(this.evictionThreshold);
-    }
+        public void setMaxIdleTime(long maxIdleTime) {
+            this.maxIdleTime = maxIdleTime;
+        }
 
-    public Duration getResponseTimeoutDuration() {
-        return Duration.ofSeconds(this.responseTimeout);
-    }
+        public long getEvictionThreshold() {
+            return evictionThreshold;
+        }
+
+        public void setEvictionThreshold(long evictionThreshold) {
+            this.evictionThreshold = evictionThreshold;
+        }
+
+        public int getResponseTimeout() {
+            return responseTimeout;
+        }
+
+        public void setResponseTimeout(int responseTimeout) {
+            this.responseTimeout = responseTimeout;
+        }
+
+        public int getConnectionTimeout() {
+            return connectionTimeout;
+        }
+
+        public void setConnectionTimeout(int connectionTimeout) {
+            this.connectionTimeout = connectionTimeout;
+        }
+
+        public Duration getPendingAcquireTimeoutDuration() {
+            return Duration.ofMillis(this.pendingAcquireTimeout);
+        }
+
+        public Duration getMaxIdleTimeDuration() {
+            return Duration.ofMinutes(this.maxIdleTime);
+        }
+
+        public Duration getEvictionThresholdDuration() {
+            return Duration.ofMinutes(this.evictionThreshold);
+        }
+
+        public Duration getResponseTimeoutDuration() {
+            return Duration.ofSeconds(this.responseTimeout);
+        }
 
-    public Duration getConnectionTimeoutDuration() {
-        return Duration.ofMillis(this.connectionTimeout);
+        public Duration getConnectionTimeoutDuration() {
+            return Duration.ofMillis(this.connectionTimeout);
+        }
     }
 }
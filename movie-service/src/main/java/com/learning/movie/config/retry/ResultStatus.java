@@ -1,6 +0,0 @@
-package com.learning.movie.config.retry;
-
-public enum ResultStatus {
-    SUCCESS,
-    FAILURE
-}
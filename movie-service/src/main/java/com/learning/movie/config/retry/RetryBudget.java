@@ -0,0 +1,37 @@
+package com.learning.movie.config.retry;
+
+/**
+ * Caps retries relative to the number of requests, shared by every upstream
+ * <p />
+ * Every request deposits {@code ratio} of a retry into the budget and every retry withdraws a whole one, so retries can
+ * never exceed {@code ratio} times the requests, plus the {@code maxBalance} retries that can be saved up while
+ * traffic is low. During an outage, once the budget is spent, failures are returned right away instead of being retried
+ */
+public class RetryBudget {
+    private final double ratio;
+    private final double maxBalance;
+
+    private double balance;
+
+    public RetryBudget(final RetryProperties.Budget properties) {
+        this.ratio = Math.min(1, properties.getRatio());
+        this.maxBalance = properties.getMaxBalance();
+        this.balance = this.maxBalance;
+    }
+
+    public synchronized void onRequest() {
+        this.balance = Math.min(this.maxBalance, this.balance + this.ratio);
+    }
+
+    /**
+     * @return whether the budget allows one more retry, in which case it is withdrawn from the budget
+     */
+    public synchronized boolean tryWithdraw() {
+        if (this.balance < 1) {
+            return false;
+        }
+
+        this.balance--;
+        return true;
+    }
+}
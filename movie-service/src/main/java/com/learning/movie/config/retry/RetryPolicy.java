@@ -1,10 +1,14 @@
 package com.learning.movie.config.retry;
 
 import java.time.Duration;
+import java.util.Set;
 
 public class RetryPolicy {
     protected int retryAttempts;
-    protected Duration retryDelay;
+    protected Duration retryDelay = Duration.ofMillis(500); // Base delay of the exponential backoff
+    protected Duration maxRetryDelay = Duration.ofSeconds(10); // Longest backoff or Retry-After worth waiting for
+    protected Set<Integer> retryableStatuses = Set.of(429, 503);
+    protected boolean retryOnConnectionFailure = true; // Only applies to idempotent requests
 
     public RetryPolicy(int retryAttempts, Duration retryDelay) {
         this.retryAttempts = retryAttempts;
@@ -28,4 +32,28 @@ public class RetryPolicy {
     public void setRetryDelay(Duration retryDelay) {
         this.retryDelay = retryDelay;
     }
+
+    public Duration getMaxRetryDelay() {
+        return maxRetryDelay;
+    }
+
+    public void setMaxRetryDelay(Duration maxRetryDelay) {
+        this.maxRetryDelay = maxRetryDelay;
+    }
+
+    public Set<Integer> getRetryableStatuses() {
+        return retryableStatuses;
+    }
+
+    public void setRetryableStatuses(Set<Integer> retryableStatuses) {
+        this.retryableStatuses = retryableStatuses;
+    }
+
+    public boolean isRetryOnConnectionFailure() {
+        return retryOnConnectionFailure;
+    }
+
+    public void setRetryOnConnectionFailure(boolean retryOnConnectionFailure) {
+        this.retryOnConnectionFailure = retryOnConnectionFailure;
+    }
 }
@@ -0,0 +1,133 @@
+package com.learning.movie.config.retry;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Retry settings bound from {@code retry.*}: the default policy under {@code retry.config}, per-upstream overrides
+ * under {@code retry.upstreams.<upstream>}, which fall back to the default policy field by field, and the retry budget shared by every upstream under {@code retry.budget}
+ */
+public class RetryProperties {
+    private RetryPolicy config = new RetryPolicy();
+    private Map<String, UpstreamPolicy> upstreams = new HashMap<>();
+    private Budget budget = new Budget();
+
+    public RetryPolicy getConfig() {
+        return config;
+    }
+
+    public void setConfig(RetryPolicy config) {
+        this.config = config;
+    }
+
+    public Map<String, UpstreamPolicy> getUpstreams() {
+        return upstreams;
+    }
+
+    public void setUpstreams(Map<String, UpstreamPolicy> upstreams) {
+        this.upstreams = upstreams;
+    }
+
+    public Budget getBudget() {
+        return budget;
+    }
+
+    public void setBudget(Budget budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * @return the policy of the upstream, taking every field its own policy leaves unset from {@code retry.config}
+     */
+    public RetryPolicy getUpstream(final String upstream) {
+        final UpstreamPolicy override = this.upstreams.get(upstream);
+        if (override == null) {
+            return this.config;
+        }
+
+        final RetryPolicy policy = new RetryPolicy(
+                Objects.requireNonNullElse(override.getRetryAttempts(), this.config.getRetryAttempts()),
+                Objects.requireNonNullElse(override.getRetryDelay(), this.config.getRetryDelay()));
+        policy.setMaxRetryDelay(Objects.requireNonNullElse(override.getMaxRetryDelay(), this.config.getMaxRetryDelay()));
+        policy.setRetryableStatuses(
+                Objects.requireNonNullElse(override.getRetryableStatuses(), this.config.getRetryableStatuses()));
+        policy.setRetryOnConnectionFailure(Objects.requireNonNullElse(
+                override.getRetryOnConnectionFailure(), this.config.isRetryOnConnectionFailure()));
+        return policy;
+    }
+
+    /**
+     * Per-upstream override of the default policy, where a {@code null} field means the default applies
+     */
+    public static class UpstreamPolicy {
+        private Integer retryAttempts;
+        private Duration retryDelay;
+        private Duration maxRetryDelay;
+        private Set<Integer> retryableStatuses;
+        private Boolean retryOnConnectionFailure;
+
+        public Integer getRetryAttempts() {
+            return retryAttempts;
+        }
+
+        public void setRetryAttempts(Integer retryAttempts) {
+            this.retryAttempts = retryAttempts;
+        }
+
+        public Duration getRetryDelay() {
+            return retryDelay;
+        }
+
+        public void setRetryDelay(Duration retryDelay) {
+            this.retryDelay = retryDelay;
+        }
+
+        public Duration getMaxRetryDelay() {
+            return maxRetryDelay;
+        }
+
+        public void setMaxRetryDelay(Duration maxRetryDelay) {
+            this.maxRetryDelay = maxRetryDelay;
+        }
+
+        public Set<Integer> getRetryableStatuses() {
+            return retryableStatuses;
+        }
+
+        public void setRetryableStatuses(Set<Integer> retryableStatuses) {
+            this.retryableStatuses = retryableStatuses;
+        }
+
+        public Boolean getRetryOnConnectionFailure() {
+            return retryOnConnectionFailure;
+        }
+
+        public void setRetryOnConnectionFailure(Boolean retryOnConnectionFailure) {
+            this.retryOnConnectionFailure = retryOnConnectionFailure;
+        }
+    }
+
+    public static class Budget {
+        private double ratio = 0.2;   // Retries earned by every request, at most 1 so that retries never double the load
+        private int maxBalance = 20;  // Retries that can be saved up while traffic is low
+
+        public double getRatio() {
+            return ratio;
+        }
+
+        public void setRatio(double ratio) {
+            this.ratio = ratio;
+        }
+
+        public int getMaxBalance() {
+            return maxBalance;
+        }
+
+        public void setMaxBalance(int maxBalance) {
+            this.maxBalance = maxBalance;
+        }
+    }
+}
@@ -1,63 +1,172 @@
 package com.learning.movie.config.retry;
 
-import io.netty.channel.ConnectTimeoutException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.HttpStatus;
-import org.springframework.web.reactive.function.client.WebClientException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
 import org.springframework.web.reactive.function.client.WebClientRequestException;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
-import reactor.util.retry.Retry;
 
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.TimeoutException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
 
-public class WebClientRetryer {
+/**
+ * Retries the requests of a {@link org.springframework.web.reactive.function.client.WebClient} according to the
+ * {@link RetryPolicy} of its upstream
+ * <ul>
+ *     <li>Responses with a retryable status (429 and 503 by default) are retried after their {@code Retry-After}, or
+ *         after an exponential backoff with full jitter when there is none. A {@code Retry-After} longer than the
+ *         maximum retry delay is returned to the caller instead of being waited for</li>
+ *     <li>Idempotent requests that fail to connect or time out are retried after an exponential backoff with full
+ *         jitter</li>
+ * </ul>
+ * Every retry must be allowed by the {@link RetryBudget} shared by all upstreams. Retries, and retries denied by the
+ * budget, are counted in {@code movieapp.upstream.retries}, tagged with the upstream's name and the outcome
+ */
+public class WebClientRetryer implements ExchangeFilterFunction {
     private static final Logger LOGGER = LoggerFactory.getLogger(WebClientRetryer.class);
 
+    private static final Set<HttpMethod> IDEMPOTENT_METHODS = Set.of(
+            HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS, HttpMethod.PUT, HttpMethod.DELETE);
+
+    private static final String RETRIES_METRIC = "movieapp.upstream.retries";
+    private static final String UPSTREAM_TAG = "upstream";
+    private static final String OUTCOME_TAG = "outcome";
+
+    private final String upstream;
     private final RetryPolicy retryPolicy;
-    private final Set<HttpStatus> errorStatuses;
+    private final RetryBudget retryBudget;
+    private final Counter retriedCounter;
+    private final Counter budgetExhaustedCounter;
 
-    public WebClientRetryer(RetryPolicy retryPolicy, HttpStatus... errorStatuses) {
+    public WebClientRetryer(final String upstream, final RetryPolicy retryPolicy, final RetryBudget retryBudget,
+                            final MeterRegistry meterRegistry) {
+        this.upstream = upstream;
         this.retryPolicy = retryPolicy;
-        this.errorStatuses = Set.of(errorStatuses);
+        this.retryBudget = retryBudget;
+        this.retriedCounter = Counter.builder(RETRIES_METRIC)
+                .description("Number of retried requests to the upstream")
+                .tags(UPSTREAM_TAG, upstream, OUTCOME_TAG, "retried")
+                .register(meterRegistry);
+        this.budgetExhaustedCounter = Counter.builder(RETRIES_METRIC)
+                .description("Number of retried requests to the upstream")
+                .tags(UPSTREAM_TAG, upstream, OUTCOME_TAG, "budget_exhausted")
+                .register(meterRegistry);
     }
 
-    public <T> Mono<RetryResult<T> > execute(Mono<T> request) {
-        return request.retryWhen(
-                Retry.fixedDelay(this.retryPolicy.getRetryAttempts(), this.retryPolicy.getRetryDelay())
-                        .filter(this::isRetryable)
-                        .onRetryExhaustedThrow((spec, retrySignal) -> retrySignal.failure()))
-                .map(RetryResult::of)
-                .defaultIfEmpty(RetryResult.of(null))
-                .doOnError(ex -> LOGGER.error(ex.getMessage()))
-                .onErrorResume(this::handleExhaustion);
+    @Override
+    public Mono<ClientResponse> filter(final ClientRequest request, final ExchangeFunction next) {
+        return Mono.defer(() -> {
+            this.retryBudget.onRequest();
+            return this.exchange(request, next, 1);
+        });
+    }
+
+    /**
+     * Every attempt resolves to the next step to take, either returning its outcome or retrying, so that the outcome
+     * of a retry is never handled twice
+     */
+    private Mono<ClientResponse> exchange(final ClientRequest request, final ExchangeFunction next, final int attempt) {
+        return next.exchange(request)
+                .map(response -> this.onResponse(request, next, attempt, response))
+                .onErrorResume(error -> Mono.just(this.onError(request, next, attempt, error)))
+                .flatMap(Function.identity());
+    }
+
+    private Mono<ClientResponse> onResponse(final ClientRequest request, final ExchangeFunction next, final int attempt,
+                                            final ClientResponse response) {
+        if (!this.retryPolicy.getRetryableStatuses().contains(response.statusCode().value())) {
+            return Mono.just(response);
+        }
+
+        final Duration delay = retryAfter(response.headers().asHttpHeaders()).orElseGet(() -> this.backoff(attempt));
+
+        if (delay.compareTo(this.retryPolicy.getMaxRetryDelay()) > 0 || !this.canRetry(attempt)) {
+            return Mono.just(response);
+        }
+
+        LOGGER.warn("Retrying {} request to {} in {} after status: {}", request.method(), request.url(), delay,
+                    response.statusCode());
+
+        return response.releaseBody()
+                .then(Mono.delay(delay))
+                .then(Mono.defer(() -> this.exchange(request, next, attempt + 1)));
     }
 
-    private boolean isRetryable(Throwable throwable) {
-        if (throwable instanceof WebClientResponseException ex) {
-            return isTimeout(ex) || this.isErrorStatus(ex);
-        } else if (throwable instanceof WebClientRequestException ex) {
-            return isTimeout(ex);
+    private Mono<ClientResponse> onError(final ClientRequest request, final ExchangeFunction next, final int attempt,
+                                         final Throwable error) {
+        if (!(error instanceof WebClientRequestException)
+            || !this.retryPolicy.isRetryOnConnectionFailure()
+            || !IDEMPOTENT_METHODS.contains(request.method())
+            || !this.canRetry(attempt)) {
+            return Mono.error(error);
         }
 
-        return false;
+        final Duration delay = this.backoff(attempt);
+        LOGGER.warn("Retrying {} request to {} in {} after error: {}", request.method(), request.url(), delay,
+                    error.getMessage());
+
+        return Mono.delay(delay)
+                .then(Mono.defer(() -> this.exchange(request, next, attempt + 1)));
     }
 
-    private boolean isErrorStatus(WebClientResponseException ex) {
-        return this.errorStatuses.stream()
-                .anyMatch(errorStatus -> ex.getStatusCode().isSameCodeAs(errorStatus));
+    private boolean canRetry(final int attempt) {
+        if (attempt > this.retryPolicy.getRetryAttempts()) {
+            return false;
+        }
+
+        if (!this.retryBudget.tryWithdraw()) {
+            LOGGER.warn("Retry budget exhausted, not retrying request to {}", this.upstream);
+            this.budgetExhaustedCounter.increment();
+            return false;
+        }
+
+        this.retriedCounter.increment();
+        return true;
     }
 
-    private static boolean isTimeout(WebClientException ex) {
-        return ex.contains(TimeoutException.class) || ex.contains(ConnectTimeoutException.class);
+    /**
+     * Exponential backoff with full jitter, i.e. a random delay between zero and the exponential delay of the attempt
+     */
+    private Duration backoff(final int attempt) {
+        final long exponentialDelayMillis = Math.min(
+                this.retryPolicy.getMaxRetryDelay().toMillis(),
+                this.retryPolicy.getRetryDelay().toMillis() * (1L << Math.min(attempt - 1, 30)));
+
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(exponentialDelayMillis + 1));
     }
 
-    private <T> Mono<RetryResult<T>> handleExhaustion(Throwable throwable) {
-        return Mono.just(
-                throwable instanceof WebClientResponseException ex && !isTimeout(ex)
-                    ? RetryResult.of(ex.getStatusCode(), ex)
-                    : RetryResult.of(null, throwable));
+    /**
+     * @return the delay requested by the {@code Retry-After} header, given either in seconds or as an HTTP date
+     */
+    private static Optional<Duration> retryAfter(final HttpHeaders headers) {
+        return Optional.ofNullable(headers.getFirst(HttpHeaders.RETRY_AFTER))
+                .map(String::trim)
+                .flatMap(retryAfter -> {
+                    try {
+                        return Optional.of(Duration.ofSeconds(Long.parseLong(retryAfter)));
+                    } catch (NumberFormatException e) {
+                        try {
+                            final Duration delay = Duration.between(
+                                    ZonedDateTime.now(),
+                                    ZonedDateTime.parse(retryAfter, DateTimeFormatter.RFC_1123_DATE_TIME));
+                            return Optional.of(delay.isNegative() ? Duration.ZERO : delay);
+                        } catch (DateTimeParseException ex) {
+                            return Optional.empty();
+                        }
+                    }
+                });
     }
 }
@@ -1,14 +1,19 @@
 package com.learning.movie.controller;
 
 import com.learning.movie.dto.CreateMovieRequest;
+import com.learning.movie.dto.FederatedSearchResponse;
 import com.learning.movie.dto.MovieDto;
+import com.learning.movie.dto.MovieSummaryDto;
+import com.learning.movie.dto.PaginatedMoviesResponse;
 import com.learning.movie.dto.UpdateMovieRatingRequest;
 import com.learning.movie.dto.subscription.StreamingReleaseSubscriptionRequest;
 import com.learning.movie.dto.tmdb.NewlyReleasedMoviesResponse;
 import com.learning.movie.model.enums.FilmMediaType;
 import com.learning.movie.service.DiscoverMovieService;
+import com.learning.movie.service.FederatedSearchService;
 import com.learning.movie.service.MovieService;
 import com.learning.movie.service.subscription.MovieStreamingReleaseSubscriptionService;
+import com.learning.movie.service.suggest.TitleSuggestionService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -29,9 +34,11 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.net.URI;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
@@ -45,15 +52,21 @@ public class MovieController {
 
     private final MovieService movieService;
     private final DiscoverMovieService discoverMovieService;
+    private final FederatedSearchService federatedSearchService;
     private final MovieStreamingReleaseSubscriptionService subscriptionService;
+    private final TitleSuggestionService titleSuggestionService;
 
     @Autowired
     public MovieController(final MovieService movieService,
                            final DiscoverMovieService discoverMovieService,
-                           final MovieStreamingReleaseSubscriptionService subscriptionService) {
+                           final FederatedSearchService federatedSearchService,
+                           final MovieStreamingReleaseSubscriptionService subscriptionService,
+                           final TitleSuggestionService titleSuggestionService) {
         this.movieService = movieService;
         this.discoverMovieService = discoverMovieService;
+        this.federatedSearchService = federatedSearchService;
         this.subscriptionService = subscriptionService;
+        this.titleSuggestionService = titleSuggestionService;
     }
 
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
@@ -97,6 +110,32 @@ public class MovieController {
                 .map(ResponseEntity::ok);
     }
 
+    @GetMapping(params = "cursor", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<PaginatedMoviesResponse> continueSearchForMovies(@RequestParam @NotBlank String cursor) {
+        LOGGER.info("Entering MovieController.continueSearchForMovies");
+        return this.movieService.showSearchResultsFromCursor(cursor);
+    }
+
+    @GetMapping(produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE })
+    public Flux<MovieSummaryDto> streamSearchResults(@RequestParam @NotBlank String s,
+                                                     @RequestParam(name = "t", required = false) String type,
+                                                     @RequestParam(name = "y", required = false) String year) {
+        LOGGER.info("Entering MovieController.streamSearchResults");
+        return this.movieService.streamSearchResults(s, FilmMediaType.fromValue(type), year);
+    }
+
+    @GetMapping(value = "/federated", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<FederatedSearchResponse> federatedSearchForMovies(@RequestParam @NotBlank String s) {
+        LOGGER.info("Entering MovieController.federatedSearchForMovies");
+        return this.federatedSearchService.search(s);
+    }
+
+    @GetMapping(value = "/suggest", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<List<String>> suggestTitles(@RequestParam @NotBlank String q,
+                                            @RequestParam(name = "limit", required = false) Integer limit) {
+        return Mono.fromSupplier(() -> this.titleSuggestionService.suggest(q, limit));
+    }
+
     @GetMapping(value = "/daily-new", produces = MediaType.APPLICATION_JSON_VALUE)
     public Mono<NewlyReleasedMoviesResponse> getDailyNewMovies() {
         LOGGER.info("Entering MovieController.getDailyNewMovies");
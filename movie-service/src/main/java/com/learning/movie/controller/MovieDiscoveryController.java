@@ -4,9 +4,13 @@ import com.learning.movie.dto.tmdb.TmdbMovie;
 import com.learning.movie.dto.tmdb.provider.WatchProvidersResponse;
 import com.learning.movie.dto.tmdb.review.TmdbReviewSummary;
 import com.learning.movie.dto.tmdb.search.MovieSearchResponse;
+import com.learning.movie.service.tmdb.TmdbIdMappingService;
 import com.learning.movie.service.tmdb.TmdbMovieService;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,11 +18,16 @@ import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/v1.0/movies/tmdb")
 @Validated
@@ -26,10 +35,24 @@ public class MovieDiscoveryController {
     private static final Logger LOGGER = LoggerFactory.getLogger(MovieDiscoveryController.class);
 
     private final TmdbMovieService tmdbMovieService;
+    private final TmdbIdMappingService tmdbIdMappingService;
 
     @Autowired
-    public MovieDiscoveryController(final TmdbMovieService tmdbMovieService) {
+    public MovieDiscoveryController(final TmdbMovieService tmdbMovieService,
+                                    final TmdbIdMappingService tmdbIdMappingService) {
         this.tmdbMovieService = tmdbMovieService;
+        this.tmdbIdMappingService = tmdbIdMappingService;
+    }
+
+    /**
+     * @return the TMDB id of every given IMDb ttId TMDB knows, keyed by ttId
+     */
+    @PostMapping(value = "/ids", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<Map<String, Long>> resolveTmdbIds(
+            @RequestBody @NotEmpty @Size(max = TmdbIdMappingService.MAX_BATCH_SIZE)
+            List<@NotBlank @Pattern(regexp = TmdbIdMappingService.TT_ID_REGEXP) String> ttIds) {
+        LOGGER.info("Entering MovieDiscoveryController.resolveTmdbIds for {} ttIds", ttIds.size());
+        return this.tmdbIdMappingService.resolveTmdbIds(ttIds);
     }
 
     @GetMapping(value = "/{movieId}", produces = MediaType.APPLICATION_JSON_VALUE)
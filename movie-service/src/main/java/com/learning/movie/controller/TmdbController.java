@@ -1,13 +1,18 @@
 package com.learning.movie.controller;
 
 import com.learning.movie.dto.tmdb.NewlyReleasedMoviesResponse;
+import com.learning.movie.dto.tmdb.TmdbMovie;
 import com.learning.movie.dto.tmdb.provider.WatchProvidersResponse;
 import com.learning.movie.repository.TmdbRepository;
+import com.learning.movie.service.tmdb.TmdbIdMappingService;
+import com.learning.movie.service.tmdb.TmdbMovieService;
 
+import jakarta.validation.constraints.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -18,26 +23,37 @@ import java.time.LocalDate;
 
 @RestController
 @RequestMapping("/api/v1.0/tmdb/movies")
+@Validated
 public class TmdbController {
     private static final Logger LOGGER = LoggerFactory.getLogger(TmdbController.class);
 
     private final TmdbRepository tmdbRepository;
+    private final TmdbMovieService tmdbMovieService;
+    private final TmdbIdMappingService tmdbIdMappingService;
 
     @Autowired
-    public TmdbController(final TmdbRepository tmdbRepository) {
+    public TmdbController(final TmdbRepository tmdbRepository,
+                          final TmdbMovieService tmdbMovieService,
+                          final TmdbIdMappingService tmdbIdMappingService) {
         this.tmdbRepository = tmdbRepository;
+        this.tmdbMovieService = tmdbMovieService;
+        this.tmdbIdMappingService = tmdbIdMappingService;
     }
 
-    @GetMapping(value = "/{ttId}", produces = MediaType.TEXT_PLAIN_VALUE)
-    public Mono<String> findByTtId(@PathVariable("ttId") String ttId) {
+    /**
+     * @return the TMDB details of the movie with the given IMDb ttId, resolved through the {@link TmdbIdMappingService}
+     */
+    @GetMapping(value = "/{ttId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<TmdbMovie> findByTtId(@PathVariable("ttId") @Pattern(regexp = TmdbIdMappingService.TT_ID_REGEXP) String ttId) {
         LOGGER.info("Entering TmdbController.findByTtId: {}", ttId);
-        return this.tmdbRepository.findByTtId(ttId);
+        return this.tmdbIdMappingService.resolveTmdbId(ttId)
+                .flatMap(this.tmdbMovieService::getTmdbMovieById);
     }
 
     @GetMapping(value = "/{movieId}/watch-providers", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<WatchProvidersResponse> getMovieProviders(@PathVariable("movieId") String movieId) {
+    public Mono<WatchProvidersResponse> getMovieProviders(@PathVariable("movieId") Long movieId) {
         LOGGER.info("Entering TmdbController.getMovieProviders for movie with ID: {}", movieId);
-        return this.tmdbRepository.getMovieWatchProviders(movieId);
+        return this.tmdbMovieService.getMovieWatchProviders(movieId);
     }
 
     @GetMapping(value = "/new")
@@ -1,5 +1,9 @@
 package com.learning.movie.controller.advice;
 
+import com.learning.movie.exception.InvalidSearchCursorException;
+import com.learning.movie.exception.UpstreamQuotaExhaustedException;
+import com.learning.movie.exception.UpstreamUnavailableException;
+import jakarta.validation.ConstraintViolationException;
 import org.hibernate.metamodel.UnsupportedMappingException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,6 +15,7 @@ import org.springframework.web.bind.support.WebExchangeBindException;
 import reactor.core.publisher.Mono;
 
 import java.util.Map;
+import java.util.Objects;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -34,9 +39,39 @@ public class GlobalExceptionHandler {
         return Mono.just(ResponseEntity.badRequest().body("Validation failed"));
     }
 
+    @ExceptionHandler(ConstraintViolationException.class)
+    public Mono<ResponseEntity<String>> handleConstraintViolationException(ConstraintViolationException ex) {
+        ex.getConstraintViolations()
+                .forEach(violation -> LOGGER.error("Validation error: {} {}", violation.getPropertyPath(), violation.getMessage()));
+
+        return Mono.just(ResponseEntity.badRequest().body("Validation failed"));
+    }
+
+    @ExceptionHandler(InvalidSearchCursorException.class)
+    public Mono<ResponseEntity<Map<String, String>>> handleInvalidSearchCursorException(InvalidSearchCursorException ex) {
+        LOGGER.warn("Invalid search cursor: {}", ex.getMessage());
+        return Mono.just(ResponseEntity.badRequest().body(toMessageBody(ex, "Invalid search cursor")));
+    }
+
+    @ExceptionHandler(UpstreamQuotaExhaustedException.class)
+    public Mono<ResponseEntity<Map<String, String>>> handleUpstreamQuotaExhaustedException(UpstreamQuotaExhaustedException ex) {
+        LOGGER.warn("Upstream quota exhausted: {}", ex.getMessage());
+        return Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(toMessageBody(ex, "Upstream quota exhausted")));
+    }
+
+    @ExceptionHandler(UpstreamUnavailableException.class)
+    public Mono<ResponseEntity<Map<String, String>>> handleUpstreamUnavailableException(UpstreamUnavailableException ex) {
+        LOGGER.warn("Upstream unavailable: {}", ex.getMessage());
+        return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(toMessageBody(ex, "Upstream unavailable")));
+    }
+
     @ExceptionHandler(Exception.class)
     public Mono<ResponseEntity<Map<String, String>>> handleGeneralException(Exception e) {
         LOGGER.error("Exception occurred: {}; due to: {}", e.getMessage(), e.getCause(), e);
         return Mono.just(ResponseEntity.internalServerError().body(Map.of("message", "Error occurred")));
     }
+
+    private static Map<String, String> toMessageBody(final Exception ex, final String defaultMessage) {
+        return Map.of("message", Objects.requireNonNullElse(ex.getMessage(), defaultMessage));
+    }
 }
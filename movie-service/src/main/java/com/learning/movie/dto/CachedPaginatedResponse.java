@@ -1,26 +1,80 @@
 package com.learning.movie.dto;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.Collections;
 import java.util.List;
 
-public class CachedPaginatedResponse {
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CachedPaginatedResponse implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     private final int pageNumber;
+    private final int totalPages;
     private final List<MovieSummaryDto> movies;
+    private final long cachedAt;
+    private final String error;
+
+    public CachedPaginatedResponse(final int pageNumber, final int totalPages, final List<MovieSummaryDto> movies) {
+        this(pageNumber, totalPages, movies, System.currentTimeMillis(), null);
+    }
 
+    /**
+     * @param cachedAt the epoch millis at which the page was fetched from OMDb, from which its staleness and expiry are
+     *                 decided independently of the other pages of the search
+     * @param error    the error OMDb answered with instead of the page, if any
+     */
     @JsonCreator
     public CachedPaginatedResponse(@JsonProperty("pageNumber") final int pageNumber,
-                                   @JsonProperty("movies") final List<MovieSummaryDto> movies) {
+                                   @JsonProperty("totalPages") final int totalPages,
+                                   @JsonProperty("movies") final List<MovieSummaryDto> movies,
+                                   @JsonProperty("cachedAt") final long cachedAt,
+                                   @JsonProperty("error") final String error) {
         this.pageNumber = pageNumber;
+        this.totalPages = totalPages;
         this.movies = movies;
+        this.cachedAt = cachedAt;
+        this.error = error;
+    }
+
+    /**
+     * @return a page of a search OMDb found nothing for, along with the error OMDb answered with, if any
+     */
+    public static CachedPaginatedResponse blankPage(final int pageNumber, final String error) {
+        return new CachedPaginatedResponse(pageNumber, 0, Collections.emptyList(), System.currentTimeMillis(), error);
     }
 
     public int getPageNumber() {
         return this.pageNumber;
     }
 
+    public int getTotalPages() {
+        return this.totalPages;
+    }
+
     public List<MovieSummaryDto> getMovies() {
         return movies;
     }
+
+    public long getCachedAt() {
+        return this.cachedAt;
+    }
+
+    public String getError() {
+        return this.error;
+    }
+
+    /**
+     * @return how long ago the page was fetched from OMDb
+     */
+    public Duration age() {
+        return Duration.ofMillis(Math.max(0, System.currentTimeMillis() - this.cachedAt));
+    }
 }
@@ -0,0 +1,102 @@
+package com.learning.movie.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.learning.movie.model.enums.FilmMediaType;
+import com.learning.movie.model.enums.SearchSource;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * A search result merged from every source that returned the same title, identified by its IMDb id
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FederatedMovieSummary implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private String imdbId;
+    private Integer tmdbId;
+    private String title;
+    private String year;
+    private FilmMediaType type;
+    private String poster;
+    private String overview;
+    private Double voteAverage;
+    private Set<SearchSource> sources = EnumSet.noneOf(SearchSource.class);
+
+    public String getImdbId() {
+        return imdbId;
+    }
+
+    public void setImdbId(String imdbId) {
+        this.imdbId = imdbId;
+    }
+
+    public Integer getTmdbId() {
+        return tmdbId;
+    }
+
+    public void setTmdbId(Integer tmdbId) {
+        this.tmdbId = tmdbId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getYear() {
+        return year;
+    }
+
+    public void setYear(String year) {
+        this.year = year;
+    }
+
+    public FilmMediaType getType() {
+        return type;
+    }
+
+    public void setType(FilmMediaType type) {
+        this.type = type;
+    }
+
+    public String getPoster() {
+        return poster;
+    }
+
+    public void setPoster(String poster) {
+        this.poster = poster;
+    }
+
+    public String getOverview() {
+        return overview;
+    }
+
+    public void setOverview(String overview) {
+        this.overview = overview;
+    }
+
+    public Double getVoteAverage() {
+        return voteAverage;
+    }
+
+    public void setVoteAverage(Double voteAverage) {
+        this.voteAverage = voteAverage;
+    }
+
+    public Set<SearchSource> getSources() {
+        return sources;
+    }
+
+    public void setSources(Set<SearchSource> sources) {
+        this.sources = sources;
+    }
+}
@@ -0,0 +1,45 @@
+package com.learning.movie.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.learning.movie.model.enums.SearchSource;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Search results merged from the sources listed in {@code sources}. A response that lacks a source is partial: the
+ * missing source did not answer within the latency budget, and the complete results are cached once it does
+ */
+public class FederatedSearchResponse implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final Set<SearchSource> sources;
+    private final List<FederatedMovieSummary> movies;
+
+    @JsonCreator
+    public FederatedSearchResponse(@JsonProperty("sources") final Set<SearchSource> sources,
+                                   @JsonProperty("movies") final List<FederatedMovieSummary> movies) {
+        this.sources = sources;
+        this.movies = movies;
+    }
+
+    public Set<SearchSource> getSources() {
+        return this.sources;
+    }
+
+    public List<FederatedMovieSummary> getMovies() {
+        return this.movies;
+    }
+
+    @JsonIgnore
+    public boolean isComplete() {
+        return this.sources.containsAll(EnumSet.allOf(SearchSource.class));
+    }
+}
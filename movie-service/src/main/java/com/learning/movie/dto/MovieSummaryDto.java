@@ -29,6 +29,10 @@ public final class MovieSummaryDto implements Serializable {
 
     public MovieSummaryDto() {}
 
+    public String getTitle() {
+        return title;
+    }
+
     public void setTitle(String title) {
         this.title = title;
     }
@@ -1,12 +1,14 @@
 package com.learning.movie.dto;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.io.Serial;
 import java.io.Serializable;
 import java.util.List;
 
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class PaginatedMoviesResponse implements Serializable {
 
     @Serial
@@ -14,12 +16,22 @@ public class PaginatedMoviesResponse implements Serializable {
 
     private final int totalPages;
     private final List<MovieSummaryDto> movies;
+    private final String nextCursor;
+    private final String correctedSearch;
+
+    public PaginatedMoviesResponse(final int totalPages, final List<MovieSummaryDto> movies, final String nextCursor) {
+        this(totalPages, movies, nextCursor, null);
+    }
 
     @JsonCreator
     public PaginatedMoviesResponse(@JsonProperty("totalPages") final int totalPages,
-                                   @JsonProperty("movies") final List<MovieSummaryDto> movies) {
+                                   @JsonProperty("movies") final List<MovieSummaryDto> movies,
+                                   @JsonProperty("nextCursor") final String nextCursor,
+                                   @JsonProperty("correctedSearch") final String correctedSearch) {
         this.totalPages = totalPages;
         this.movies = movies;
+        this.nextCursor = nextCursor;
+        this.correctedSearch = correctedSearch;
     }
 
     public int getTotalPages() {
@@ -29,4 +41,15 @@ public class PaginatedMoviesResponse implements Serializable {
     public List<MovieSummaryDto> getMovies() {
         return movies;
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * @return the search that was issued instead of a misspelled one which found nothing, if any
+     */
+    public String getCorrectedSearch() {
+        return correctedSearch;
+    }
 }
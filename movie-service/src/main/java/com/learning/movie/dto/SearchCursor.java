@@ -0,0 +1,66 @@
+package com.learning.movie.dto;
+
+import com.learning.movie.exception.InvalidSearchCursorException;
+import com.learning.movie.model.enums.FilmMediaType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token of a search whose result set spans more pages than are fetched eagerly, pointing to the
+ * first page of the next slice to fetch
+ */
+public record SearchCursor(String search, FilmMediaType type, String year, int nextPage) {
+    private static final String DELIMITER = "\u0000";
+
+    public String encode() {
+        final String rawCursor = String.join(DELIMITER,
+                this.search,
+                this.type == null ? "" : this.type.getValue(),
+                this.year == null ? "" : this.year,
+                String.valueOf(this.nextPage));
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(rawCursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws InvalidSearchCursorException if the cursor was not issued by {@link #encode()}
+     */
+    public static SearchCursor decode(final String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            throw new InvalidSearchCursorException("the cursor is blank");
+        }
+
+        final String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(DELIMITER, -1);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidSearchCursorException("the cursor is not Base64 encoded", e);
+        }
+
+        if (parts.length != 4 || parts[0].isBlank()) {
+            throw new InvalidSearchCursorException("the cursor is malformed");
+        }
+
+        final int nextPage;
+        try {
+            nextPage = Integer.parseInt(parts[3]);
+        } catch (NumberFormatException e) {
+            throw new InvalidSearchCursorException("the page number is not a number", e);
+        }
+
+        if (nextPage < 1) {
+            throw new InvalidSearchCursorException("the page number must be positive");
+        }
+
+        if (!parts[1].isEmpty() && FilmMediaType.fromValue(parts[1]) == null) {
+            throw new InvalidSearchCursorException("the media type is unknown");
+        }
+
+        return new SearchCursor(
+                parts[0],
+                parts[1].isEmpty() ? null : FilmMediaType.fromValue(parts[1]),
+                parts[2].isEmpty() ? null : parts[2],
+                nextPage);
+    }
+}
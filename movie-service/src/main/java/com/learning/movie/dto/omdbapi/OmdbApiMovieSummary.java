@@ -24,6 +24,8 @@ public class OmdbApiMovieSummary implements Serializable {
     @JsonProperty("Poster")
     private String poster;
 
+    private String imdbID;
+
     public String getTitle() {
         return title;
     }
@@ -55,4 +57,12 @@ public class OmdbApiMovieSummary implements Serializable {
     public void setPoster(String poster) {
         this.poster = poster;
     }
+
+    public String getImdbID() {
+        return imdbID;
+    }
+
+    public void setImdbID(String imdbID) {
+        this.imdbID = imdbID;
+    }
 }
@@ -21,6 +21,9 @@ public class OmdbApiPaginatedSearchResponse implements Serializable {
     @JsonProperty("Response")
     private Boolean response;
 
+    @JsonProperty("Error")
+    private String error;
+
     public List<OmdbApiMovieSummary> getSearch() {
         return this.search;
     }
@@ -32,4 +35,8 @@ public class OmdbApiPaginatedSearchResponse implements Serializable {
     public Boolean getResponse() {
         return this.response;
     }
+
+    public String getError() {
+        return this.error;
+    }
 }
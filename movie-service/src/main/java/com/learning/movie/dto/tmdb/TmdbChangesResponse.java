@@ -0,0 +1,17 @@
+package com.learning.movie.dto.tmdb;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record TmdbChangesResponse(
+        List<Change> results,
+        int page,
+        @JsonProperty("total_pages") int totalPages
+) {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Change(long id) {}
+}
@@ -0,0 +1,10 @@
+package com.learning.movie.dto.tmdb;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record TmdbExternalIds(
+        int id,
+        @JsonProperty("imdb_id") String imdbId
+) {}
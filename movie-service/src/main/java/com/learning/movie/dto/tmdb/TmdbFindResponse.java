@@ -0,0 +1,15 @@
+package com.learning.movie.dto.tmdb;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record TmdbFindResponse(
+        @JsonProperty("movie_results") List<MovieResult> movieResults
+) {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record MovieResult(long id) {}
+}
@@ -0,0 +1,11 @@
+package com.learning.movie.exception;
+
+public final class InvalidSearchCursorException extends RuntimeException {
+    public InvalidSearchCursorException(final String reason) {
+        super("Invalid search cursor: %s".formatted(reason));
+    }
+
+    public InvalidSearchCursorException(final String reason, final Throwable cause) {
+        super("Invalid search cursor: %s".formatted(reason), cause);
+    }
+}
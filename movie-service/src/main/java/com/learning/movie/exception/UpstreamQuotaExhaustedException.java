@@ -0,0 +1,7 @@
+package com.learning.movie.exception;
+
+public final class UpstreamQuotaExhaustedException extends RuntimeException {
+    public UpstreamQuotaExhaustedException(final String upstream) {
+        super("The daily request quota of %s is exhausted".formatted(upstream));
+    }
+}
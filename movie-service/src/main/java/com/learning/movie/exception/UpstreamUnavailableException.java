@@ -0,0 +1,7 @@
+package com.learning.movie.exception;
+
+public final class UpstreamUnavailableException extends RuntimeException {
+    public UpstreamUnavailableException(final String upstream, final String reason) {
+        super("%s is unavailable: %s".formatted(upstream, reason));
+    }
+}
@@ -0,0 +1,39 @@
+package com.learning.movie.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Table("tmdb_id_mappings")
+public class TmdbIdMapping {
+
+    @Id
+    @Column("ttid")
+    private String ttId;
+
+    @Column("tmdb_id")
+    private Long tmdbId;
+
+    public TmdbIdMapping(String ttId, Long tmdbId) {
+        this.ttId = ttId;
+        this.tmdbId = tmdbId;
+    }
+
+    public TmdbIdMapping() {}
+
+    public String getTtId() {
+        return ttId;
+    }
+
+    public void setTtId(String ttId) {
+        this.ttId = ttId;
+    }
+
+    public Long getTmdbId() {
+        return tmdbId;
+    }
+
+    public void setTmdbId(Long tmdbId) {
+        this.tmdbId = tmdbId;
+    }
+}
@@ -0,0 +1,6 @@
+package com.learning.movie.model.enums;
+
+public enum SearchSource {
+    OMDB,
+    TMDB
+}
@@ -1,10 +1,9 @@
 package com.learning.movie.repository;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.learning.movie.dto.omdbapi.OmdbApiResponse;
 import com.learning.movie.dto.omdbapi.OmdbApiPaginatedSearchResponse;
 import com.learning.movie.model.enums.FilmMediaType;
+import com.learning.movie.config.concurrency.AdaptiveConcurrencyLimiter;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Repository;
@@ -20,17 +19,20 @@ public class OmdbApiRepository {
 
     private static final String TT_ID_QUERY_PARAM = "i";
     private static final String SEARCH_QUERY_PARAM = "s";
-    private static final String TYPE_QUERY_PARAM = "t";
+    private static final String TYPE_QUERY_PARAM = "type";
     private static final String YEAR_QUERY_PARAM = "y";
     private static final String PAGE_QUERY_PARAM = "page";
 
     private final WebClient webClient;
-    private final ObjectMapper objectMapper;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
 
+    /**
+     * Calls are counted against the OMDb daily quota by a filter of the {@code omdbApiClient}, once per attempt
+     */
     public OmdbApiRepository(final @Qualifier("omdbApiClient") WebClient webClient,
-                             final ObjectMapper objectMapper) {
+                             final @Qualifier("omdbConcurrencyLimiter") AdaptiveConcurrencyLimiter concurrencyLimiter) {
         this.webClient = webClient;
-        this.objectMapper = objectMapper;
+        this.concurrencyLimiter = concurrencyLimiter;
     }
 
     public Mono<OmdbApiResponse> getMovieByTtId(final String ttId) {
@@ -42,8 +44,8 @@ public class OmdbApiRepository {
                         .build())
                 .accept(MediaType.TEXT_PLAIN)
                 .retrieve()
-                .bodyToMono(String.class)
-                .map(responseText -> this.mapApplicationTextToOmdbDto(responseText, OmdbApiResponse.class));
+                .bodyToMono(OmdbApiResponse.class)
+                .transform(this.concurrencyLimiter::limit);
     }
 
     public Mono<OmdbApiPaginatedSearchResponse> findMovieByQueryParameters(final String search, final FilmMediaType mediaType,
@@ -62,15 +64,7 @@ public class OmdbApiRepository {
                         .build())
                 .accept(MediaType.TEXT_PLAIN)
                 .retrieve()
-                .bodyToMono(String.class)
-                .map(responseText -> this.mapApplicationTextToOmdbDto(responseText, OmdbApiPaginatedSearchResponse.class));
-    }
-
-    private <T> T mapApplicationTextToOmdbDto(String responseText, Class<T> responseType) {
-        try {
-            return this.objectMapper.readValue(responseText, responseType);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException(e);
-        }
+                .bodyToMono(OmdbApiPaginatedSearchResponse.class)
+                .transform(this.concurrencyLimiter::limit);
     }
 }
@@ -0,0 +1,26 @@
+package com.learning.movie.repository;
+
+import com.learning.movie.model.TmdbIdMapping;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+@Repository
+public interface TmdbIdMappingRepository extends ReactiveCrudRepository<TmdbIdMapping, String> {
+
+    Flux<TmdbIdMapping> findAllByTtIdIn(Collection<String> ttIds);
+
+    Flux<TmdbIdMapping> findAllByTmdbIdIn(Collection<Long> tmdbIds);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO tmdb_id_mappings (ttid, tmdb_id)
+            VALUES (:ttId, :tmdbId)
+            ON CONFLICT (ttid) DO NOTHING""")
+    Mono<Integer> insertIfAbsent(String ttId, Long tmdbId);
+}
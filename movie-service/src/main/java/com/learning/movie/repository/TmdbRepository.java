@@ -1,6 +1,11 @@
 package com.learning.movie.repository;
 
+import com.learning.movie.config.concurrency.AdaptiveConcurrencyLimiter;
+import com.learning.movie.config.concurrency.RequestHedger;
 import com.learning.movie.dto.tmdb.NewlyReleasedMoviesResponse;
+import com.learning.movie.dto.tmdb.TmdbChangesResponse;
+import com.learning.movie.dto.tmdb.TmdbExternalIds;
+import com.learning.movie.dto.tmdb.TmdbFindResponse;
 import com.learning.movie.dto.tmdb.TmdbMovie;
 import com.learning.movie.dto.tmdb.provider.WatchProvidersResponse;
 import com.learning.movie.dto.tmdb.review.TmdbReviewResponse;
@@ -20,11 +25,13 @@ public class TmdbRepository {
 
     // Paths
     private static final String DISCOVER_PATH = "/3/discover/movie";
+    private static final String MOVIE_CHANGES_PATH = "/3/movie/changes";
     private static final String FIND_BY_TTID_PATH = "/3/find/{external_id}";
     private static final String GET_MOVIE_WATCH_PROVIDERS_PATH = "/3/movie/{movie_id}/watch/providers";
     private static final String GET_MOVIE_DETAILS_BY_TTID_PATH = "/3/movie/{movie_id}";
     private static final String SEARCH_MOVIE_PATH = "/3/search/movie";
     private static final String GET_MOVIE_REVIEWS = GET_MOVIE_DETAILS_BY_TTID_PATH.concat("/reviews");
+    private static final String GET_MOVIE_EXTERNAL_IDS_PATH = GET_MOVIE_DETAILS_BY_TTID_PATH.concat("/external_ids");
 
     // Query parameters
     private static final String EXTERNAL_SOURCE_QUERY_PARAM = "external_source";
@@ -32,24 +39,36 @@ public class TmdbRepository {
     private static final String START_DATE_QUERY_PARAM = "primary_release_date.lte";
     private static final String END_DATE_QUERY_PARAM = "primary_release_date.gte";
     private static final String PAGE_QUERY_PARAM = "page";
+    private static final String CHANGES_START_DATE_QUERY_PARAM = "start_date";
+    private static final String CHANGES_END_DATE_QUERY_PARAM = "end_date";
     private static final String QUERY_PARAM = "query";
     private static final String YEAR_QUERY_PARAM = "year";
 
     private final WebClient webClient;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final RequestHedger movieDetailsHedger;
+    private final RequestHedger watchProvidersHedger;
 
-    public TmdbRepository(final @Qualifier("tmdbApiClient") WebClient webClient) {
+    public TmdbRepository(final @Qualifier("tmdbApiClient") WebClient webClient,
+                          final @Qualifier("tmdbConcurrencyLimiter") AdaptiveConcurrencyLimiter concurrencyLimiter,
+                          final @Qualifier("tmdbMovieDetailsHedger") RequestHedger movieDetailsHedger,
+                          final @Qualifier("tmdbWatchProvidersHedger") RequestHedger watchProvidersHedger) {
         this.webClient = webClient;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.movieDetailsHedger = movieDetailsHedger;
+        this.watchProvidersHedger = watchProvidersHedger;
     }
 
-    public Mono<String> findByTtId(final String ttId) {
+    public Mono<TmdbFindResponse> findMovieByTtId(final String ttId) {
         return this.webClient.get()
                 .uri(uriBuilder -> uriBuilder
                         .path(FIND_BY_TTID_PATH)
                         .queryParam(EXTERNAL_SOURCE_QUERY_PARAM, EXTERNAL_SOURCE_VALUE)
                         .build(ttId))
-                .accept(MediaType.TEXT_PLAIN)
+                .accept(MediaType.APPLICATION_JSON)
                 .retrieve()
-                .bodyToMono(String.class);
+                .bodyToMono(TmdbFindResponse.class)
+                .transform(this.concurrencyLimiter::limit);
     }
 
     public Mono<WatchProvidersResponse> getMovieWatchProviders(String movieId) {
@@ -59,7 +78,9 @@ public class TmdbRepository {
                         .build(movieId))
                 .accept(MediaType.APPLICATION_JSON)
                 .retrieve()
-                .bodyToMono(WatchProvidersResponse.class);
+                .bodyToMono(WatchProvidersResponse.class)
+                .transform(this.concurrencyLimiter::limit)
+                .transform(this.watchProvidersHedger::hedge);
     }
 
     public Mono<NewlyReleasedMoviesResponse> getNewMovies(LocalDate startDate, LocalDate endDate, Integer page) {
@@ -72,7 +93,8 @@ public class TmdbRepository {
                         .build())
                 .accept(MediaType.APPLICATION_JSON)
                 .retrieve()
-                .bodyToMono(NewlyReleasedMoviesResponse.class);
+                .bodyToMono(NewlyReleasedMoviesResponse.class)
+                .transform(this.concurrencyLimiter::limit);
     }
 
     public Mono<TmdbMovie> getMovieDetailsByTtId(final String ttId) {
@@ -82,7 +104,9 @@ public class TmdbRepository {
                         .build(ttId))
                 .accept(MediaType.APPLICATION_JSON)
                 .retrieve()
-                .bodyToMono(TmdbMovie.class);
+                .bodyToMono(TmdbMovie.class)
+                .transform(this.concurrencyLimiter::limit)
+                .transform(this.movieDetailsHedger::hedge);
     }
 
     public Mono<MovieSearchResponse> searchForMovies(String query, String year) {
@@ -94,7 +118,8 @@ public class TmdbRepository {
                         .build())
                 .accept(MediaType.APPLICATION_JSON)
                 .retrieve()
-                .bodyToMono(MovieSearchResponse.class);
+                .bodyToMono(MovieSearchResponse.class)
+                .transform(this.concurrencyLimiter::limit);
     }
 
     public Mono<TmdbReviewResponse> getMovieReviews(String movieId, int page) {
@@ -105,6 +130,32 @@ public class TmdbRepository {
                         .build(movieId))
                 .accept(MediaType.APPLICATION_JSON)
                 .retrieve()
-                .bodyToMono(TmdbReviewResponse.class);
+                .bodyToMono(TmdbReviewResponse.class)
+                .transform(this.concurrencyLimiter::limit);
+    }
+
+    public Mono<TmdbExternalIds> getMovieExternalIds(String movieId) {
+        return this.webClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path(GET_MOVIE_EXTERNAL_IDS_PATH)
+                        .build(movieId))
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .bodyToMono(TmdbExternalIds.class)
+                .transform(this.concurrencyLimiter::limit);
+    }
+
+    public Mono<TmdbChangesResponse> getMovieChanges(LocalDate startDate, LocalDate endDate, int page) {
+        return this.webClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path(MOVIE_CHANGES_PATH)
+                        .queryParam(CHANGES_START_DATE_QUERY_PARAM, startDate.format(DateTimeFormatter.ISO_DATE))
+                        .queryParam(CHANGES_END_DATE_QUERY_PARAM, endDate.format(DateTimeFormatter.ISO_DATE))
+                        .queryParam(PAGE_QUERY_PARAM, page)
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .bodyToMono(TmdbChangesResponse.class)
+                .transform(this.concurrencyLimiter::limit);
     }
 }
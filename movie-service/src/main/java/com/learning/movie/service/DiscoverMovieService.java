@@ -3,7 +3,16 @@ package com.learning.movie.service;
 import com.learning.movie.dto.tmdb.NewlyReleasedMoviesResponse;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+
 public interface DiscoverMovieService {
 
     Mono<NewlyReleasedMoviesResponse> getNewMovies();
+
+    /**
+     * Evicts today's cached new movies if any of them changed, so that they are reloaded on their next request
+     *
+     * @return whether the cached new movies were evicted
+     */
+    Mono<Boolean> evictChangedNewMovies(Collection<Long> changedMovieIds);
 }
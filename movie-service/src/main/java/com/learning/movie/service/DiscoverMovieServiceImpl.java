@@ -1,12 +1,16 @@
 package com.learning.movie.service;
 
+import com.learning.movie.config.properties.CacheNamespaceProperties;
+import com.learning.movie.dto.tmdb.NewlyReleasedMovie;
 import com.learning.movie.dto.tmdb.NewlyReleasedMoviesResponse;
 import com.learning.movie.repository.TmdbRepository;
+import com.learning.movie.service.suggest.TitlesDiscoveredEvent;
 import com.learning.movie.utility.Utility;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
@@ -17,6 +21,9 @@ import java.time.Duration;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
@@ -28,14 +35,22 @@ public class DiscoverMovieServiceImpl implements DiscoverMovieService {
 
     private final TmdbRepository tmdbRepository;
     private final ReactiveRedisTemplate<String, NewlyReleasedMoviesResponse> reactiveRedisTemplate;
+    private final Duration cacheTtl;
+    private final ApplicationEventPublisher applicationEventPublisher;
     private final ConcurrentHashMap<String, Mono<NewlyReleasedMoviesResponse>> lockMap = new ConcurrentHashMap<>();
 
     @Autowired
     public DiscoverMovieServiceImpl(
             final TmdbRepository tmdbRepository,
-            @Qualifier("newlyReleasedMoviesRedisTemplate") final ReactiveRedisTemplate<String, NewlyReleasedMoviesResponse> reactiveRedisTemplate) {
+            @Qualifier("newlyReleasedMoviesRedisTemplate") final ReactiveRedisTemplate<String, NewlyReleasedMoviesResponse> reactiveRedisTemplate,
+            final CacheNamespaceProperties cacheNamespaceProperties,
+            final ApplicationEventPublisher applicationEventPublisher) {
         this.tmdbRepository = tmdbRepository;
         this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.cacheTtl = cacheNamespaceProperties
+                .getNamespace(CacheNamespaceProperties.NEWLY_RELEASED_MOVIES_NAMESPACE)
+                .getTtl();
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     @Override
@@ -55,6 +70,22 @@ public class DiscoverMovieServiceImpl implements DiscoverMovieService {
                 ));
     }
 
+    @Override
+    public Mono<Boolean> evictChangedNewMovies(final Collection<Long> changedMovieIds) {
+        final String cacheKey = REDIS_PREFIX_NAMESPACE.concat(LocalDate.now(ZoneOffset.UTC).format(DateTimeFormatter.ISO_DATE));
+        final Set<Long> changedMovieIdSet = new HashSet<>(changedMovieIds);
+
+        return this.reactiveRedisTemplate.opsForValue()
+                .get(cacheKey)
+                .filter(newMovies -> newMovies.getResults().stream()
+                        .map(NewlyReleasedMovie::getId)
+                        .anyMatch(changedMovieIdSet::contains))
+                .flatMap(changedNewMovies -> this.reactiveRedisTemplate.delete(cacheKey))
+                .map(deletedCount -> deletedCount > 0)
+                .doOnNext(isEvicted -> LOGGER.info("Evicted changed new movies with key: {}", cacheKey))
+                .defaultIfEmpty(false);
+    }
+
     private Mono<NewlyReleasedMoviesResponse> fetchThenCacheNewMovies(final LocalDate today, final String cacheKey) {
         return this.tmdbRepository.getNewMovies(today, today, null)
                 .filter(firstPageResult -> !CollectionUtils.isEmpty(firstPageResult.getResults()))
@@ -62,7 +93,7 @@ public class DiscoverMovieServiceImpl implements DiscoverMovieService {
                     final int pageCount = Utility.calculatePageCount(firstPageResult.getTotalResults(), 10);
 
                     return Flux.range(2, Math.max(0, pageCount - 1))
-                            .flatMap(pageNumber -> this.tmdbRepository.getNewMovies(today, today, pageNumber), 10)
+                            .flatMap(pageNumber -> this.tmdbRepository.getNewMovies(today, today, pageNumber))
                             .collectList()
                             .map(aggregatedNewMovies -> {
                                 aggregatedNewMovies.add(0, firstPageResult);
@@ -76,7 +107,11 @@ public class DiscoverMovieServiceImpl implements DiscoverMovieService {
                             });
                 })
                 .flatMap(aggregatedNewMovies -> this.reactiveRedisTemplate.opsForValue()
-                        .set(cacheKey, aggregatedNewMovies, Duration.ofDays(1L))
+                        .set(cacheKey, aggregatedNewMovies, this.cacheTtl)
+                        .doOnSuccess(isCached -> this.applicationEventPublisher.publishEvent(new TitlesDiscoveredEvent(
+                                aggregatedNewMovies.getResults().stream()
+                                        .map(NewlyReleasedMovie::getTitle)
+                                        .toList())))
                         .thenReturn(aggregatedNewMovies));
     }
 }
@@ -0,0 +1,9 @@
+package com.learning.movie.service;
+
+import com.learning.movie.dto.FederatedSearchResponse;
+import reactor.core.publisher.Mono;
+
+public interface FederatedSearchService {
+
+    Mono<FederatedSearchResponse> search(String text);
+}
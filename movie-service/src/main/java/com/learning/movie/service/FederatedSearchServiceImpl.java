@@ -0,0 +1,246 @@
+package com.learning.movie.service;
+
+import com.learning.movie.config.properties.CacheNamespaceProperties;
+import com.learning.movie.config.properties.SearchProperties;
+import com.learning.movie.dto.FederatedMovieSummary;
+import com.learning.movie.dto.FederatedSearchResponse;
+import com.learning.movie.dto.omdbapi.OmdbApiMovieSummary;
+import com.learning.movie.dto.tmdb.search.MovieSearchResponse;
+import com.learning.movie.model.enums.FilmMediaType;
+import com.learning.movie.model.enums.SearchSource;
+import com.learning.movie.repository.OmdbApiRepository;
+import com.learning.movie.repository.TmdbRepository;
+import com.learning.movie.service.cache.SingleFlight;
+import com.learning.movie.service.preprocessor.SearchParser;
+import com.learning.movie.service.suggest.TitlesDiscoveredEvent;
+import com.learning.movie.service.tmdb.TmdbIdMappingService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+@Service
+public class FederatedSearchServiceImpl implements FederatedSearchService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FederatedSearchServiceImpl.class);
+
+    private static final String FEDERATED_SEARCH_CACHE_KEY_TEMPLATE = "movieapp:federated-search:%s:%s";
+    private static final String TMDB_ONLY_MOVIE_KEY_PREFIX = "tmdb:";
+    private static final int RELEASE_YEAR_LENGTH = 4;
+
+    private final OmdbApiRepository omdbApiRepository;
+    private final TmdbRepository tmdbRepository;
+    private final TmdbIdMappingService tmdbIdMappingService;
+    private final ReactiveRedisTemplate<String, FederatedSearchResponse> reactiveRedisTemplate;
+    private final SingleFlight<FederatedSearchResponse> federatedSearchSingleFlight;
+    private final SearchProperties searchProperties;
+    private final Duration cacheTtl;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Autowired
+    public FederatedSearchServiceImpl(
+            final OmdbApiRepository omdbApiRepository,
+            final TmdbRepository tmdbRepository,
+            final TmdbIdMappingService tmdbIdMappingService,
+            @Qualifier("federatedSearchRedisTemplate") final ReactiveRedisTemplate<String, FederatedSearchResponse> reactiveRedisTemplate,
+            final SearchProperties searchProperties,
+            final CacheNamespaceProperties cacheNamespaceProperties,
+            final MeterRegistry meterRegistry,
+            final ApplicationEventPublisher applicationEventPublisher) {
+        this.omdbApiRepository = omdbApiRepository;
+        this.tmdbRepository = tmdbRepository;
+        this.tmdbIdMappingService = tmdbIdMappingService;
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.federatedSearchSingleFlight = new SingleFlight<>("federatedSearchResults", meterRegistry);
+        this.searchProperties = searchProperties;
+        this.cacheTtl = cacheNamespaceProperties
+                .getNamespace(CacheNamespaceProperties.FEDERATED_SEARCH_NAMESPACE)
+                .getTtl();
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    /**
+     * Searches OMDb and TMDB in parallel and merges their results by IMDb id, OMDb results first
+     * <p />
+     * If both sources answer within the latency budget, the merged results are returned. Otherwise, the results of
+     * whichever source answered first are returned as a partial response, while the search keeps running in the
+     * background and caches the merged results once the other source answers. Only complete results are cached
+     */
+    @Override
+    public Mono<FederatedSearchResponse> search(final String text) {
+        final Map<String, String> parsedParams = SearchParser.parseSearch(text);
+        final String query = parsedParams.get(SearchParser.PARSE_KEY_QUERY);
+        final String year = parsedParams.get(SearchParser.PARSE_KEY_YEAR);
+        final String key = FEDERATED_SEARCH_CACHE_KEY_TEMPLATE.formatted(query.toLowerCase(), year);
+
+        return this.reactiveRedisTemplate.opsForValue()
+                .get(key)
+                .doOnNext(response -> LOGGER.info("Cache hit for key: {}", key))
+                .switchIfEmpty(Mono.defer(() -> {
+                    final Flux<FederatedSearchResponse> searchProgress = this.federatedSearchSingleFlight
+                            .executeMany(key, () -> this.fetchFederatedSearchResults(key, query, year))
+                            .cache();
+
+                    return searchProgress
+                            .takeUntil(FederatedSearchResponse::isComplete)
+                            .takeLast(1)
+                            .next()
+                            .timeout(this.searchProperties.getFederatedLatencyBudget(), searchProgress.next());
+                }))
+                .defaultIfEmpty(new FederatedSearchResponse(Collections.emptySet(), Collections.emptyList()));
+    }
+
+    /**
+     * Emits the results of the first source to answer, then the merged results of both sources once the second one
+     * answers, caching the latter. A source that fails is left out, in which case nothing gets cached
+     */
+    private Flux<FederatedSearchResponse> fetchFederatedSearchResults(final String key, final String query,
+                                                                      final String year) {
+        return Flux.merge(this.searchOmdb(query, year), this.searchTmdb(query, year))
+                .scan(FederatedSearchServiceImpl::mergeResponses)
+                .concatMap(response -> response.isComplete()
+                        ? this.reactiveRedisTemplate.opsForValue()
+                            .set(key, response, this.cacheTtl)
+                            .doOnSuccess(isCached -> LOGGER.info("Cached federated search results with key: {}", key))
+                            .doOnSuccess(isCached -> this.applicationEventPublisher.publishEvent(new TitlesDiscoveredEvent(
+                                    response.getMovies().stream()
+                                            .map(FederatedMovieSummary::getTitle)
+                                            .toList())))
+                            .onErrorResume(error -> {
+                                LOGGER.warn("Could not cache federated search results with key: {} due to: {}",
+                                            key, error.getMessage());
+                                return Mono.just(false);
+                            })
+                            .thenReturn(response)
+                        : Mono.just(response));
+    }
+
+    private Mono<FederatedSearchResponse> searchOmdb(final String query, final String year) {
+        return this.omdbApiRepository.findMovieByQueryParameters(query, null, year, 1)
+                .map(omdbApiResponse -> Optional.ofNullable(omdbApiResponse.getSearch())
+                        .orElse(Collections.emptyList())
+                        .stream()
+                        .map(FederatedSearchServiceImpl::fromOmdbApiMovieSummary)
+                        .toList())
+                .map(movies -> new FederatedSearchResponse(EnumSet.of(SearchSource.OMDB), movies))
+                .onErrorResume(error -> {
+                    LOGGER.warn("OMDb search for: {} failed due to: {}", query, error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Searches TMDB, then resolves the IMDb ids of the results as one batch through the {@link TmdbIdMappingService}
+     * so they can be merged with the OMDb results. A result whose IMDb id cannot be resolved is kept as a TMDB-only
+     * result
+     */
+    private Mono<FederatedSearchResponse> searchTmdb(final String query, final String year) {
+        return this.tmdbRepository.searchForMovies(query, year)
+                .map(movieSearchResponse -> Optional.ofNullable(movieSearchResponse.getResults())
+                        .orElse(Collections.emptyList()))
+                .flatMap(movieResults -> this.tmdbIdMappingService
+                        .resolveTtIds(movieResults.stream()
+                                              .map(movieResult -> (long) movieResult.getId())
+                                              .toList())
+                        .onErrorResume(error -> Mono.just(Collections.emptyMap()))
+                        .map(imdbIdsByTmdbId -> movieResults.stream()
+                                .map(movieResult -> fromTmdbMovieResult(movieResult,
+                                                                        imdbIdsByTmdbId.get((long) movieResult.getId())))
+                                .toList()))
+                .map(movies -> new FederatedSearchResponse(EnumSet.of(SearchSource.TMDB), movies))
+                .onErrorResume(error -> {
+                    LOGGER.warn("TMDB search for: {} failed due to: {}", query, error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private static FederatedSearchResponse mergeResponses(final FederatedSearchResponse first,
+                                                          final FederatedSearchResponse second) {
+        final boolean isOmdbFirst = first.getSources().contains(SearchSource.OMDB);
+        final Map<String, FederatedMovieSummary> moviesById = new LinkedHashMap<>();
+
+        Stream.concat((isOmdbFirst ? first : second).getMovies().stream(),
+                      (isOmdbFirst ? second : first).getMovies().stream())
+                .forEach(movie -> moviesById.merge(
+                        movie.getImdbId() != null
+                                ? movie.getImdbId()
+                                : TMDB_ONLY_MOVIE_KEY_PREFIX.concat(String.valueOf(movie.getTmdbId())),
+                        movie,
+                        FederatedSearchServiceImpl::mergeMovies));
+
+        final Set<SearchSource> sources = EnumSet.noneOf(SearchSource.class);
+        sources.addAll(first.getSources());
+        sources.addAll(second.getSources());
+
+        return new FederatedSearchResponse(sources, List.copyOf(moviesById.values()));
+    }
+
+    /**
+     * Merges two results of the same movie, preferring the details of the first one
+     */
+    private static FederatedMovieSummary mergeMovies(final FederatedMovieSummary preferred,
+                                                     final FederatedMovieSummary other) {
+        final FederatedMovieSummary merged = new FederatedMovieSummary();
+        merged.setImdbId(preferred.getImdbId());
+        merged.setTmdbId(Optional.ofNullable(preferred.getTmdbId()).orElse(other.getTmdbId()));
+        merged.setTitle(Optional.ofNullable(preferred.getTitle()).orElse(other.getTitle()));
+        merged.setYear(Optional.ofNullable(preferred.getYear()).orElse(other.getYear()));
+        merged.setType(Optional.ofNullable(preferred.getType()).orElse(other.getType()));
+        merged.setPoster(Optional.ofNullable(preferred.getPoster()).orElse(other.getPoster()));
+        merged.setOverview(Optional.ofNullable(preferred.getOverview()).orElse(other.getOverview()));
+        merged.setVoteAverage(Optional.ofNullable(preferred.getVoteAverage()).orElse(other.getVoteAverage()));
+
+        final Set<SearchSource> sources = EnumSet.noneOf(SearchSource.class);
+        sources.addAll(preferred.getSources());
+        sources.addAll(other.getSources());
+        merged.setSources(sources);
+
+        return merged;
+    }
+
+    private static FederatedMovieSummary fromOmdbApiMovieSummary(final OmdbApiMovieSummary omdbApiMovieSummary) {
+        final FederatedMovieSummary movie = new FederatedMovieSummary();
+        movie.setImdbId(omdbApiMovieSummary.getImdbID());
+        movie.setTitle(omdbApiMovieSummary.getTitle());
+        movie.setYear(omdbApiMovieSummary.getYear());
+        movie.setType(omdbApiMovieSummary.getType());
+        movie.setPoster(omdbApiMovieSummary.getPoster());
+        movie.setSources(EnumSet.of(SearchSource.OMDB));
+
+        return movie;
+    }
+
+    private static FederatedMovieSummary fromTmdbMovieResult(final MovieSearchResponse.MovieResult movieResult,
+                                                             final String imdbId) {
+        final FederatedMovieSummary movie = new FederatedMovieSummary();
+        movie.setImdbId(imdbId);
+        movie.setTmdbId(movieResult.getId());
+        movie.setTitle(movieResult.getTitle());
+        movie.setYear(StringUtils.hasLength(movieResult.getReleaseDate())
+                              && movieResult.getReleaseDate().length() >= RELEASE_YEAR_LENGTH
+                      ? movieResult.getReleaseDate().substring(0, RELEASE_YEAR_LENGTH)
+                      : null);
+        movie.setType(FilmMediaType.MOVIE);
+        movie.setOverview(movieResult.getOverview());
+        movie.setVoteAverage(movieResult.getVoteAverage());
+        movie.setSources(EnumSet.of(SearchSource.TMDB));
+
+        return movie;
+    }
+}
@@ -6,6 +6,7 @@ import java.util.UUID;
 import com.learning.movie.dto.CachedPaginatedResponse;
 import com.learning.movie.dto.CreateMovieRequest;
 import com.learning.movie.dto.MovieDto;
+import com.learning.movie.dto.MovieSummaryDto;
 import com.learning.movie.dto.PaginatedMoviesResponse;
 import com.learning.movie.dto.UpdateMovieRatingRequest;
 import com.learning.movie.dto.omdbapi.OmdbApiResponse;
@@ -24,6 +25,10 @@ public interface MovieService {
 
     Mono<PaginatedMoviesResponse> showAllSearchResults(String search, FilmMediaType type, String year);
 
+    Mono<PaginatedMoviesResponse> showSearchResultsFromCursor(String cursor);
+
+    Flux<MovieSummaryDto> streamSearchResults(String search, FilmMediaType type, String year);
+
     Mono<CachedPaginatedResponse> showSearchResultWithPageNumber(String search, FilmMediaType type, String year,
                                                                  Integer pageNumber);
 
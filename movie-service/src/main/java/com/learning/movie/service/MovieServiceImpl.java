@@ -1,11 +1,16 @@
 package com.learning.movie.service;
 
+import com.learning.movie.config.concurrency.DailyQuotaGovernor;
+import com.learning.movie.config.concurrency.RequestPriority;
+import com.learning.movie.config.properties.SearchProperties;
 import com.learning.movie.dto.CachedPaginatedResponse;
 import com.learning.movie.dto.CreateMovieRequest;
 import com.learning.movie.dto.MovieDto;
 import com.learning.movie.dto.MovieSummaryDto;
 import com.learning.movie.dto.PaginatedMoviesResponse;
+import com.learning.movie.dto.SearchCursor;
 import com.learning.movie.dto.UpdateMovieRatingRequest;
+import com.learning.movie.dto.omdbapi.OmdbApiPaginatedSearchResponse;
 import com.learning.movie.dto.omdbapi.OmdbApiResponse;
 import com.learning.movie.exception.MovieNotFoundException;
 import com.learning.movie.mapper.MovieMapper;
@@ -13,31 +18,52 @@ import com.learning.movie.model.Movie;
 import com.learning.movie.model.enums.FilmMediaType;
 import com.learning.movie.repository.MovieRepository;
 import com.learning.movie.repository.OmdbApiRepository;
+import com.learning.movie.service.cache.SearchResultCache;
+import com.learning.movie.service.cache.SingleFlight;
+import com.learning.movie.service.suggest.TitleSuggestionService;
+import com.learning.movie.service.suggest.TitlesDiscoveredEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import com.learning.movie.utility.Utility;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.Signal;
 
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 @Service
 public class MovieServiceImpl implements MovieService {
     private static final Logger LOGGER = LoggerFactory.getLogger(MovieServiceImpl.class.getName());
 
-    private static final int MAX_CONCURRENT_API_CALLS = 10;
     private static final int PAGE_SIZE = 10;
 
+    private static final String SEARCH_CACHE_KEY_TEMPLATE = "movieapp:search:%s:%s:%s";
+    private static final String PAGE_KEY_DELIMITER = "#";
+    private static final String SLICE_KEY_DELIMITER = "@";
+    private static final String TOO_MANY_RESULTS_ERROR = "Too many results.";
+    private static final String NOT_FOUND_ERROR_SUFFIX = "not found!";
+
     private static final String INSERTION_SQL_STATEMENT = "INSERT INTO movie_details (id, title, ttid) VALUES (:id, :title, :ttid)";
     private static final String SELECTION_SQL_STATEMENT = "SELECT * FROM movie_details WHERE id = :id";
 
@@ -45,23 +71,36 @@ public class MovieServiceImpl implements MovieService {
     private static final String TITLE_COLUMN = "title";
     private static final String TTID_COLUMN = "ttid";
 
-    private static final PaginatedMoviesResponse DEFAULT_BLANK_MOVIES_RESPONSE = new PaginatedMoviesResponse(
-            0,  Collections.emptyList());
-
     private final MovieRepository movieRepository;
     private final OmdbApiRepository omdbApiRepository;
     private final DatabaseClient databaseClient;
-    private final ReactiveRedisTemplate<String, PaginatedMoviesResponse> reactiveRedisTemplate;
+    private final SearchResultCache searchResultCache;
+    private final SingleFlight<CachedPaginatedResponse> searchSingleFlight;
+    private final SearchProperties searchProperties;
+    private final ConcurrentMap<String, SearchPrefetch> searchPrefetches = new ConcurrentHashMap<>();
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final TitleSuggestionService titleSuggestionService;
+    private final DailyQuotaGovernor omdbQuotaGovernor;
 
     @Autowired
     public MovieServiceImpl(final MovieRepository movieRepository,
                             final OmdbApiRepository omdbApiRepository,
                             final DatabaseClient databaseClient,
-                            @Qualifier("paginatedSearchMovieResultRedisTemplate") final ReactiveRedisTemplate<String, PaginatedMoviesResponse> reactiveRedisTemplate) {
+                            final SearchResultCache searchResultCache,
+                            final SearchProperties searchProperties,
+                            final MeterRegistry meterRegistry,
+                            final ApplicationEventPublisher applicationEventPublisher,
+                            final TitleSuggestionService titleSuggestionService,
+                            @Qualifier("omdbQuotaGovernor") final DailyQuotaGovernor omdbQuotaGovernor) {
         this.movieRepository = movieRepository;
         this.omdbApiRepository = omdbApiRepository;
         this.databaseClient = databaseClient;
-        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.searchResultCache = searchResultCache;
+        this.searchSingleFlight = new SingleFlight<>("searchResults", meterRegistry);
+        this.searchProperties = searchProperties;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.titleSuggestionService = titleSuggestionService;
+        this.omdbQuotaGovernor = omdbQuotaGovernor;
     }
 
     @Override
@@ -99,6 +138,8 @@ public class MovieServiceImpl implements MovieService {
                                                 .one());
                             }))
                             .doOnSuccess(savedMovie -> LOGGER.info("Persisted movie with ID: [{}] into the database", savedMovie.getMovieId()))
+                            .doOnSuccess(savedMovie -> this.applicationEventPublisher.publishEvent(
+                                    new TitlesDiscoveredEvent(List.of(savedMovie.getTitle()))))
                             .map(MovieMapper::movieEntityToMovieResponseDTO));
     }
 
@@ -115,77 +156,337 @@ public class MovieServiceImpl implements MovieService {
                 .doOnSuccess(fetchedMovie -> LOGGER.info("Retrieved movie with ID: {}", movieId));
     }
 
+    /**
+     * Returns the first slice of a search, made of at most {@code movieapp.search.max-eager-pages} pages, along with a
+     * continuation cursor when the search spans more pages than that
+     */
     @Override
     public Mono<PaginatedMoviesResponse> showAllSearchResults(final String search, final FilmMediaType type, final String year) {
-        final String key = "movieapp:%s:%s:%s".formatted(search.toLowerCase(), type.getValue(), year);
+        final SearchCursor cursor = new SearchCursor(search, type, year, 1);
+
+        return this.getSortedSearchResultSlice(cursor)
+                .flatMap(searchResultPages -> {
+                    final PaginatedMoviesResponse searchResults = toPaginatedMoviesResponse(cursor, searchResultPages);
+
+                    // A search matching too many titles is not misspelled, it is too broad for a correction to help,
+                    // and a search OMDb failed to answer is not known to be misspelled
+                    final String error = searchResultPages.get(0).getError();
+                    return searchResults.getTotalPages() > 0
+                           || TOO_MANY_RESULTS_ERROR.equals(error)
+                           || isTransientError(error)
+                            ? Mono.just(searchResults)
+                            : this.showCorrectedSearchResults(search, type, year).defaultIfEmpty(searchResults);
+                });
+    }
 
-        return this.reactiveRedisTemplate.opsForValue()
-                .get(key)
-                .switchIfEmpty(Mono.defer(() -> this.searchByQueryParams(search, type, year))
-                        .flatMap(movieSearchResult -> this.reactiveRedisTemplate.opsForValue()
-                                .set(key, movieSearchResult)
-                                .thenReturn(movieSearchResult)));
+    /**
+     * Returns the slice of a search that the continuation cursor points to, fetching its pages lazily and appending
+     * them to the cached search
+     */
+    @Override
+    public Mono<PaginatedMoviesResponse> showSearchResultsFromCursor(final String cursor) {
+        return Mono.fromCallable(() -> SearchCursor.decode(cursor))
+                .flatMap(this::showSearchResultSlice);
+    }
+
+    /**
+     * Streams the search results of every OMDb page as soon as each page arrives, instead of waiting for an entire
+     * slice to complete like {@link #showAllSearchResults(String, FilmMediaType, String)} does, moving on to the next
+     * slice once the previous one is exhausted
+     */
+    @Override
+    public Flux<MovieSummaryDto> streamSearchResults(final String search, final FilmMediaType type, final String year) {
+        return this.streamSearchResultPages(searchCacheKey(search, type, year), search, type, year, 1)
+                .flatMapIterable(CachedPaginatedResponse::getMovies);
     }
 
+    /**
+     * Returns a single page of the search results. On a cache miss, the pages following it are prefetched in the
+     * background so that the client's next page requests are served from the cache
+     */
     @Override
     public Mono<CachedPaginatedResponse> showSearchResultWithPageNumber(String search, FilmMediaType type, String year,
                                                                         Integer pageNumber) {
-        final String key = "movieapp:%s:%s:%s".formatted(search.toLowerCase(), type.getValue(), year);
-
-        return this.reactiveRedisTemplate.opsForValue()
-                .get(key)
-                .map(paginatedMoviesResponse -> new CachedPaginatedResponse(
-                        pageNumber, getPageResult(pageNumber, paginatedMoviesResponse.getMovies())))
-                .switchIfEmpty(
-                        Mono.defer(() -> this.omdbApiRepository
-                                .findMovieByQueryParameters(search, type, year, pageNumber)
-                                .map(omdbApiPaginatedSearchResponse -> omdbApiPaginatedSearchResponse.getSearch()
-                                        .stream()
-                                        .map(MovieMapper::fromOmdbApiMovieSummary)
-                                        .collect(Collectors.collectingAndThen(
-                                                Collectors.toList(),
-                                                movieSummaries -> new CachedPaginatedResponse(pageNumber, movieSummaries))))
-                ));
-    }
-
-    private static List<MovieSummaryDto> getPageResult(int pageNumber, List<MovieSummaryDto> allMovies) {
-        final int totalItems = allMovies.size();
-        final int fromIndex = (pageNumber - 1) * PAGE_SIZE;
-        if (fromIndex >= totalItems) {
-            return Collections.emptyList();
-        }
+        final String key = searchCacheKey(search, type, year);
+
+        return Mono.defer(() -> {
+            final AtomicReference<SearchPrefetch> joinedPrefetch = new AtomicReference<>();
+
+            return this.searchResultCache.getPage(key, pageNumber,
+                                                  () -> this.loadSearchResultPage(key, search, type, year, pageNumber))
+                    .switchIfEmpty(Mono.defer(() -> this.loadSearchResultPage(key, search, type, year, pageNumber)
+                            .doOnNext(searchResultPage -> joinedPrefetch.set(this.prefetchSearchResultPages(
+                                    key, search, type, year, pageNumber, searchResultPage.getTotalPages())))))
+                    .doOnCancel(() -> Optional.ofNullable(joinedPrefetch.get()).ifPresent(this::leaveSearchResultPrefetch));
+        });
+    }
+
+    /**
+     * Re-issues a search that found nothing, once, with the closest known title, so that a misspelled search still
+     * finds results on the first try. The continuation cursor of the response points to the corrected search
+     */
+    private Mono<PaginatedMoviesResponse> showCorrectedSearchResults(final String search, final FilmMediaType type,
+                                                                     final String year) {
+        return Mono.justOrEmpty(this.titleSuggestionService.correct(search))
+                .doOnNext(correctedSearch -> LOGGER.info("Re-issuing search: {} as: {}", search, correctedSearch))
+                .flatMap(correctedSearch -> this.showSearchResultSlice(new SearchCursor(correctedSearch, type, year, 1))
+                        .filter(searchResults -> searchResults.getTotalPages() > 0)
+                        .map(searchResults -> new PaginatedMoviesResponse(searchResults.getTotalPages(),
+                                                                          searchResults.getMovies(),
+                                                                          searchResults.getNextCursor(),
+                                                                          correctedSearch)));
+    }
+
+    private Mono<PaginatedMoviesResponse> showSearchResultSlice(final SearchCursor cursor) {
+        return this.getSortedSearchResultSlice(cursor)
+                .map(searchResultPages -> toPaginatedMoviesResponse(cursor, searchResultPages));
+    }
 
-        final int toIndex = Math.min(fromIndex + 10, totalItems);
-
-        return allMovies.subList(fromIndex, toIndex);
-    }
-
-    private Mono<PaginatedMoviesResponse> searchByQueryParams(final String search, final FilmMediaType type,
-                                                              final String year) {
-        return this.omdbApiRepository.findMovieByQueryParameters(search, type, year, null)
-                .filter(firstPageResult -> firstPageResult.getTotalResults() != null && firstPageResult.getTotalResults() > 0)
-                .flatMap(firstPageResult -> {
-                    final int pageCount = !firstPageResult.getSearch().isEmpty()
-                            ? (int) Math.ceil((double) firstPageResult.getTotalResults() / PAGE_SIZE)
-                            : 1;
-
-                    return Flux.fromStream(IntStream.rangeClosed(2, pageCount).boxed())
-                            .flatMap(pageNumber -> this.omdbApiRepository.findMovieByQueryParameters(search, type, year, pageNumber),
-                                     MAX_CONCURRENT_API_CALLS)
-                            .collectList()
-                            .map(omdbApiPaginatedSearchResponses -> {
-                                omdbApiPaginatedSearchResponses.add(0, firstPageResult);
-
-                                return omdbApiPaginatedSearchResponses.stream()
-                                        .flatMap(omdbApiResponse -> omdbApiResponse.getSearch().stream()
-                                                .filter(movieSummary -> type == null || type == movieSummary.getType())
-                                                .map(MovieMapper::fromOmdbApiMovieSummary))
-                                        .collect(Collectors.collectingAndThen(
-                                                Collectors.toList(),
-                                                movieSummaries -> new PaginatedMoviesResponse(pageCount, movieSummaries)));
-                            });
+    private Mono<List<CachedPaginatedResponse>> getSortedSearchResultSlice(final SearchCursor cursor) {
+        final String key = searchCacheKey(cursor.search(), cursor.type(), cursor.year());
+
+        return this.getSearchResultSlice(key, cursor.search(), cursor.type(), cursor.year(), cursor.nextPage())
+                .sort(Comparator.comparingInt(CachedPaginatedResponse::getPageNumber))
+                .collectList();
+    }
+
+    /**
+     * Walks the slices of a search one after the other, until the last page or until a slice is cut short because the
+     * OMDb quota has no room left for its eager pages, as walking on would spend the interactive reserve one page at a
+     * time
+     */
+    private Flux<CachedPaginatedResponse> streamSearchResultPages(final String key, final String search,
+                                                                  final FilmMediaType type, final String year,
+                                                                  final int fromPage) {
+        final AtomicInteger lastPageNumber = new AtomicInteger();
+        final AtomicInteger totalPages = new AtomicInteger();
+
+        return this.getSearchResultSlice(key, search, type, year, fromPage)
+                .doOnNext(searchResultPage -> {
+                    lastPageNumber.accumulateAndGet(searchResultPage.getPageNumber(), Math::max);
+                    totalPages.set(searchResultPage.getTotalPages());
                 })
-                .defaultIfEmpty(DEFAULT_BLANK_MOVIES_RESPONSE);
+                .concatWith(Flux.defer(() -> {
+                    if (lastPageNumber.get() <= 0 || lastPageNumber.get() >= totalPages.get()) {
+                        return Flux.empty();
+                    }
+
+                    final int sliceLastPage = Math.min(totalPages.get(),
+                                                       fromPage + this.searchProperties.getMaxEagerPages() - 1);
+                    if (lastPageNumber.get() < sliceLastPage) {
+                        LOGGER.warn("Stopped streaming search results with key: {} at page: {} of {}, OMDb quota is exhausted",
+                                    key, lastPageNumber.get(), totalPages.get());
+                        return Flux.empty();
+                    }
+
+                    return this.streamSearchResultPages(key, search, type, year, lastPageNumber.get() + 1);
+                }));
+    }
+
+    /**
+     * Emits the pages of a slice of the search starting from {@code fromPage}, from the cache if every page of the
+     * slice is cached, otherwise from OMDb
+     */
+    private Flux<CachedPaginatedResponse> getSearchResultSlice(final String key, final String search,
+                                                               final FilmMediaType type, final String year,
+                                                               final int fromPage) {
+        final int maxEagerPages = this.searchProperties.getMaxEagerPages();
+
+        return this.searchResultCache.getPages(key, fromPage, maxEagerPages,
+                                               () -> this.loadSearchResultSlice(key, search, type, year, fromPage).then())
+                .flatMapIterable(Function.identity())
+                .switchIfEmpty(Flux.defer(() -> this.loadSearchResultSlice(key, search, type, year, fromPage)));
+    }
+
+    /**
+     * Loads a single page of a search from OMDb and caches it, provided that the page exists
+     */
+    private Mono<CachedPaginatedResponse> loadSearchResultPage(final String key, final String search,
+                                                               final FilmMediaType type, final String year,
+                                                               final int pageNumber) {
+        return this.searchSingleFlight.execute(
+                key.concat(PAGE_KEY_DELIMITER).concat(String.valueOf(pageNumber)),
+                () -> this.omdbApiRepository
+                        .findMovieByQueryParameters(search, type, year, pageNumber)
+                        .map(omdbApiResponse -> toSearchResultPage(
+                                pageNumber, calculatePageCount(omdbApiResponse), omdbApiResponse))
+                        .flatMap(searchResultPage -> searchResultPage.getTotalPages() >= pageNumber
+                                ? this.searchResultCache.putPage(key, searchResultPage).thenReturn(searchResultPage)
+                                : Mono.just(searchResultPage)));
+    }
+
+    /**
+     * Prefetches, one page at a time, the pages after {@code pageNumber} which are not cached yet, up to the configured
+     * number of pages. Requests for the same page of the same search join the running prefetch instead of starting
+     * another one, and the prefetch is only stopped once every request that joined it was abandoned
+     * <p />
+     * Pages are loaded sequentially as background calls, so that a prefetch never holds more than a single OMDb call at
+     * once and only runs while interactive requests leave headroom
+     */
+    private SearchPrefetch prefetchSearchResultPages(final String key, final String search, final FilmMediaType type,
+                                                     final String year, final int pageNumber, final int totalPages) {
+        final int toPage = Math.min(totalPages, pageNumber + this.searchProperties.getPrefetchPages());
+        if (toPage <= pageNumber) {
+            return null;
+        }
+
+        final String prefetchKey = key.concat(PAGE_KEY_DELIMITER).concat(String.valueOf(pageNumber));
+        final SearchPrefetch startedPrefetch = new SearchPrefetch(prefetchKey);
+        final SearchPrefetch prefetch = this.searchPrefetches.compute(prefetchKey, (ignored, runningPrefetch) -> {
+            final SearchPrefetch joinedPrefetch = runningPrefetch == null ? startedPrefetch : runningPrefetch;
+            joinedPrefetch.subscriberCount++;
+            return joinedPrefetch;
+        });
+        if (prefetch != startedPrefetch) {
+            return prefetch;
+        }
+
+        prefetch.subscription.update(Flux.range(pageNumber + 1, toPage - pageNumber)
+                .concatMap(prefetchedPageNumber -> this.searchResultCache.getPage(key, prefetchedPageNumber, Mono::empty)
+                        .switchIfEmpty(Mono.defer(() -> this.loadSearchResultPage(
+                                key, search, type, year, prefetchedPageNumber))))
+                .doFinally(signal -> this.searchPrefetches.remove(prefetchKey, prefetch))
+                .contextWrite(RequestPriority.BACKGROUND.asContext())
+                .subscribe(
+                        prefetchedPage -> LOGGER.debug("Prefetched page: {} of search results with key: {}",
+                                                       prefetchedPage.getPageNumber(), key),
+                        error -> LOGGER.warn("Could not prefetch search results with key: {} due to: {}",
+                                             key, error.getMessage())));
+
+        return prefetch;
+    }
+
+    /**
+     * Leaves the prefetch joined by an abandoned request, stopping it once no other request is left on it. A page that
+     * is already being loaded still completes and gets cached, as it may be shared with other requests for the same page
+     */
+    private void leaveSearchResultPrefetch(final SearchPrefetch prefetch) {
+        final boolean isAbandoned = this.searchPrefetches.computeIfPresent(prefetch.key, (ignored, runningPrefetch) ->
+                runningPrefetch != prefetch || --runningPrefetch.subscriberCount > 0 ? runningPrefetch : null) == null;
+
+        // Disposed outside the map update, as disposing runs the doFinally of the prefetch which updates the map again
+        if (isAbandoned) {
+            prefetch.subscription.dispose();
+        }
+    }
+
+    /**
+     * Loads a slice of a search from OMDb, emitting each page as soon as it arrives, then caches the slice once every
+     * page of it has been received, leaving out the pages OMDb failed to answer
+     * <p />
+     * Concurrent cache misses of the same slice share a single upstream fan-out, which keeps running until the slice
+     * is cached even if every caller disconnects early
+     */
+    private Flux<CachedPaginatedResponse> loadSearchResultSlice(final String key, final String search,
+                                                                final FilmMediaType type, final String year,
+                                                                final int fromPage) {
+        return this.searchSingleFlight.executeMany(
+                key.concat(SLICE_KEY_DELIMITER).concat(String.valueOf(fromPage)),
+                () -> this.fetchSearchResultPages(search, type, year, fromPage)
+                        .switchIfEmpty(Flux.defer(() -> Flux.just(CachedPaginatedResponse.blankPage(fromPage, null))))
+                        .publish(searchResultPages -> searchResultPages.mergeWith(searchResultPages
+                                .filter(searchResultPage -> (searchResultPage.getPageNumber() == 1
+                                                             || searchResultPage.getTotalPages() >= searchResultPage.getPageNumber())
+                                                            && !isTransientError(searchResultPage.getError()))
+                                .collectList()
+                                .filter(Predicate.not(List::isEmpty))
+                                .flatMap(slicePages -> this.searchResultCache.putPages(key, slicePages))
+                                .doOnSuccess(isCached -> LOGGER.info("Cached search results with key: {} from page: {}",
+                                                                     key, fromPage))
+                                .onErrorResume(error -> {
+                                    LOGGER.warn("Could not cache search results with key: {} due to: {}",
+                                                key, error.getMessage());
+                                    return Mono.empty();
+                                })
+                                .then(Mono.empty()))));
+    }
+
+    private static String searchCacheKey(final String search, final FilmMediaType type, final String year) {
+        return SEARCH_CACHE_KEY_TEMPLATE.formatted(search.toLowerCase(), type == null ? null : type.getValue(), year);
+    }
+
+    /**
+     * Fetches the first OMDb page of the slice to learn how many pages the search spans, then fans out to the remaining
+     * pages of the slice, emitting each page as soon as it arrives (i.e. not necessarily in page order). How many of
+     * those pages are requested at once is decided by the OMDb concurrency limiter rather than by the fan-out itself
+     * <p />
+     * The media type is filtered by OMDb itself, so the total results and therefore the page count only account for
+     * movies of the requested type
+     * <p />
+     * The eager pages are speculative, so the fan-out is cut short to the pages that can be reserved in the OMDb daily
+     * quota without eating into the interactive reserve. The slice then ends early and its cursor continues from the
+     * first page that was not fetched
+     */
+    private Flux<CachedPaginatedResponse> fetchSearchResultPages(final String search, final FilmMediaType type,
+                                                                 final String year, final int fromPage) {
+        return this.omdbApiRepository.findMovieByQueryParameters(search, type, year, fromPage)
+                .flatMapMany(firstPageResult -> {
+                    if (firstPageResult.getTotalResults() == null || firstPageResult.getTotalResults() <= 0) {
+                        return Flux.just(CachedPaginatedResponse.blankPage(fromPage, firstPageResult.getError()));
+                    }
+
+                    final int pageCount = calculatePageCount(firstPageResult);
+                    final int toPage = Math.min(pageCount, fromPage + this.searchProperties.getMaxEagerPages() - 1);
+                    final int eagerPageCount = Math.max(0, toPage - fromPage);
+
+                    return this.omdbQuotaGovernor.withSpeculativeCalls(eagerPageCount, grantedPageCount -> {
+                                if (grantedPageCount < eagerPageCount) {
+                                    LOGGER.warn("OMDb quota is running low, fetching {} of {} eager pages of search: {}",
+                                                grantedPageCount, eagerPageCount, search);
+                                }
+
+                                return Flux.range(fromPage + 1, grantedPageCount)
+                                        .flatMap(pageNumber -> this.omdbApiRepository.findMovieByQueryParameters(search, type, year, pageNumber)
+                                                .map(omdbApiResponse -> toSearchResultPage(pageNumber, pageCount, omdbApiResponse)));
+                            })
+                            .startWith(toSearchResultPage(fromPage, pageCount, firstPageResult));
+                });
+    }
+
+    private static int calculatePageCount(final OmdbApiPaginatedSearchResponse omdbApiResponse) {
+        if (omdbApiResponse.getTotalResults() == null || omdbApiResponse.getTotalResults() <= 0) {
+            return 0;
+        }
+
+        return !CollectionUtils.isEmpty(omdbApiResponse.getSearch())
+                ? Utility.calculatePageCount(omdbApiResponse.getTotalResults(), PAGE_SIZE)
+                : 1;
+    }
+
+    private static CachedPaginatedResponse toSearchResultPage(final int pageNumber, final int totalPages,
+                                                              final OmdbApiPaginatedSearchResponse omdbApiResponse) {
+        final List<MovieSummaryDto> movieSummaries = Optional.ofNullable(omdbApiResponse.getSearch())
+                .orElse(Collections.emptyList())
+                .stream()
+                .map(MovieMapper::fromOmdbApiMovieSummary)
+                .toList();
+
+        return new CachedPaginatedResponse(pageNumber, totalPages, movieSummaries, System.currentTimeMillis(),
+                                           omdbApiResponse.getError());
+    }
+
+    /**
+     * @return whether OMDb failed to answer a search, e.g. with "Request limit reached!" or "Error getting data.",
+     * rather than answering that nothing or too much matches it. Such a page is neither cached nor corrected
+     */
+    private static boolean isTransientError(final String error) {
+        return error != null && !error.endsWith(NOT_FOUND_ERROR_SUFFIX) && !TOO_MANY_RESULTS_ERROR.equals(error);
+    }
+
+    private static PaginatedMoviesResponse toPaginatedMoviesResponse(final SearchCursor cursor,
+                                                                     final List<CachedPaginatedResponse> sortedSearchResultPages) {
+        final CachedPaginatedResponse lastPage = sortedSearchResultPages.get(sortedSearchResultPages.size() - 1);
+        final int totalPages = lastPage.getTotalPages();
+
+        final String nextCursor = lastPage.getPageNumber() < totalPages
+                ? new SearchCursor(cursor.search(), cursor.type(), cursor.year(), lastPage.getPageNumber() + 1).encode()
+                : null;
+
+        return sortedSearchResultPages.stream()
+                .flatMap(searchResultPage -> searchResultPage.getMovies().stream())
+                .collect(Collectors.collectingAndThen(
+                        Collectors.toList(),
+                        movieSummaries -> new PaginatedMoviesResponse(totalPages, movieSummaries, nextCursor)));
     }
 
     @Override
@@ -228,6 +529,20 @@ public class MovieServiceImpl implements MovieService {
                 .doOnSuccess(response -> LOGGER.info("Requested movie's information is valid"));
     }
 
+    /**
+     * A running prefetch and the number of requests it was started or joined by, which is only updated within the
+     * {@code searchPrefetches} map operations
+     */
+    private static final class SearchPrefetch {
+        private final String key;
+        private final Disposable.Swap subscription = Disposables.swap();
+        private int subscriberCount;
+
+        private SearchPrefetch(final String key) {
+            this.key = key;
+        }
+    }
+
     private static boolean verifyMovieInformation(CreateMovieRequest createMovieRequest, OmdbApiResponse omdbApiResponse) {
         return createMovieRequest.getTitle().equals(omdbApiResponse.getTitle()) &&
                (!StringUtils.hasText(createMovieRequest.getDirector()) || createMovieRequest.getDirector().equals(omdbApiResponse.getDirector())) &&
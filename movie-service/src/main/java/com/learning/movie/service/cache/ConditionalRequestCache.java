@@ -0,0 +1,164 @@
+package com.learning.movie.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.learning.movie.config.properties.ConditionalRequestCacheProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+
+/**
+ * An HTTP conditional-request cache for the GET requests of a
+ * {@link org.springframework.web.reactive.function.client.WebClient}
+ * <p />
+ * Bodies of 200 responses carrying an {@code ETag} or a {@code Last-Modified} validator are stored, keyed by the
+ * request's URL and {@code Accept} header, as they are read by the caller. Later requests for the same URL are sent
+ * with {@code If-None-Match} and {@code If-Modified-Since}, and a 304 response is turned into a 200 response serving
+ * the stored body, so the upstream only sends bodies that changed. Responses marked {@code no-store} and bodies larger
+ * than {@code max-body-size} are not stored.
+ * <p />
+ * Entries are evicted once the stored bodies exceed {@code maximum-weight} bytes or after {@code expire-after-access}.
+ * Hit and miss counts are published under the {@code cache.*} metrics, tagged with the cache's name, and the responses
+ * served from the cache and the bytes they saved as {@code movieapp.upstream.conditional.*}
+ */
+public class ConditionalRequestCache implements ExchangeFilterFunction {
+    private static final String NOT_MODIFIED_METRIC = "movieapp.upstream.conditional.not-modified";
+    private static final String BYTES_SAVED_METRIC = "movieapp.upstream.conditional.bytes-saved";
+    private static final String CACHE_TAG = "cache";
+    private static final String KEY_DELIMITER = "#";
+
+    private final int maxBodySize;
+    private final Cache<String, StoredResponse> cache;
+    private final Counter notModifiedCounter;
+    private final Counter bytesSavedCounter;
+
+    private record StoredResponse(String eTag, String lastModified, MediaType contentType, byte[] body) {}
+
+    public ConditionalRequestCache(final String name,
+                                   final ConditionalRequestCacheProperties properties,
+                                   final MeterRegistry meterRegistry) {
+        this.maxBodySize = properties.getMaxBodySize();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaximumWeight())
+                .weigher((String key, StoredResponse storedResponse) -> storedResponse.body().length)
+                .expireAfterAccess(properties.getExpireAfterAccess())
+                .recordStats()
+                .build();
+        this.notModifiedCounter = Counter.builder(NOT_MODIFIED_METRIC)
+                .description("Number of responses served from the stored body after a 304 response")
+                .tag(CACHE_TAG, name)
+                .register(meterRegistry);
+        this.bytesSavedCounter = Counter.builder(BYTES_SAVED_METRIC)
+                .description("Number of body bytes served from the cache instead of the upstream")
+                .tag(CACHE_TAG, name)
+                .register(meterRegistry);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, name);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(final ClientRequest request, final ExchangeFunction next) {
+        if (!HttpMethod.GET.equals(request.method())) {
+            return next.exchange(request);
+        }
+
+        return Mono.defer(() -> {
+            final String key = cacheKey(request);
+            final StoredResponse storedResponse = this.cache.getIfPresent(key);
+
+            final ClientRequest conditionalRequest = storedResponse == null
+                    ? request
+                    : ClientRequest.from(request)
+                            .headers(headers -> {
+                                if (storedResponse.eTag() != null) {
+                                    headers.setIfNoneMatch(storedResponse.eTag());
+                                }
+                                if (storedResponse.lastModified() != null) {
+                                    headers.set(HttpHeaders.IF_MODIFIED_SINCE, storedResponse.lastModified());
+                                }
+                            })
+                            .build();
+
+            return next.exchange(conditionalRequest)
+                    .map(response -> {
+                        if (storedResponse != null && response.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                            return this.fromStoredResponse(response, storedResponse);
+                        }
+
+                        if (response.statusCode().isSameCodeAs(HttpStatus.OK)) {
+                            return this.storingBody(key, response);
+                        }
+
+                        return response;
+                    });
+        });
+    }
+
+    private ClientResponse fromStoredResponse(final ClientResponse response, final StoredResponse storedResponse) {
+        this.notModifiedCounter.increment();
+        this.bytesSavedCounter.increment(storedResponse.body().length);
+
+        return response.mutate()
+                .statusCode(HttpStatus.OK)
+                .headers(headers -> {
+                    headers.setContentType(storedResponse.contentType());
+                    headers.setContentLength(storedResponse.body().length);
+                })
+                .body(body -> body
+                        .doOnNext(DataBufferUtils::release)
+                        .thenMany(Flux.defer(() -> Flux.just(
+                                DefaultDataBufferFactory.sharedInstance.wrap(storedResponse.body())))))
+                .build();
+    }
+
+    /**
+     * Stores the body of a response carrying a validator while the caller reads it, the body being passed on intact
+     */
+    private ClientResponse storingBody(final String key, final ClientResponse response) {
+        final HttpHeaders headers = response.headers().asHttpHeaders();
+        final String eTag = headers.getETag();
+        final String lastModified = headers.getFirst(HttpHeaders.LAST_MODIFIED);
+        final String cacheControl = headers.getCacheControl();
+
+        if ((eTag == null && lastModified == null)
+            || (cacheControl != null && cacheControl.contains(CacheControl.noStore().getHeaderValue()))) {
+            this.cache.invalidate(key);
+            return response;
+        }
+
+        return response.mutate()
+                .body(body -> DataBufferUtils.join(body)
+                        .doOnNext(buffer -> {
+                            if (buffer.readableByteCount() > this.maxBodySize) {
+                                this.cache.invalidate(key);
+                                return;
+                            }
+
+                            final byte[] bytes = new byte[buffer.readableByteCount()];
+                            buffer.toByteBuffer(buffer.readPosition(), ByteBuffer.wrap(bytes), 0, bytes.length);
+                            this.cache.put(key, new StoredResponse(eTag, lastModified, headers.getContentType(), bytes));
+                        })
+                        .flux())
+                .build();
+    }
+
+    private static String cacheKey(final ClientRequest request) {
+        return request.url() + KEY_DELIMITER + String.join(",", request.headers().getOrEmpty(HttpHeaders.ACCEPT));
+    }
+}
@@ -0,0 +1,162 @@
+package com.learning.movie.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.learning.movie.config.properties.NearCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A bounded, size and TTL evicted in-process cache that sits in front of a Redis backed cache
+ * <p />
+ * Every replica holds its own copy of hot entries, so whenever a replica writes an entry to Redis it publishes the
+ * Redis key on a shared channel, and every other replica drops the near cached entries derived from that key. Entries
+ * are keyed by {@code <redis key>#<field>}, and the fields held for every Redis key are indexed, so a single message
+ * invalidates every field of a Redis hash without scanning the whole near cache.
+ * <p />
+ * Hit, miss and eviction counts are published under the {@code cache.*} metrics, tagged with the cache's name
+ */
+public class NearCache<V> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(NearCache.class);
+
+    private static final String FIELD_DELIMITER = "#";
+    private static final String MESSAGE_DELIMITER = "|";
+
+    private final String name;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final String invalidationChannel;
+    private final Cache<String, V> cache;
+    private final ConcurrentHashMap<String, Set<String>> fieldsByKey = new ConcurrentHashMap<>();
+    private final ReactiveStringRedisTemplate reactiveStringRedisTemplate;
+
+    private Disposable invalidationSubscription;
+
+    public NearCache(final String name,
+                     final NearCacheProperties nearCacheProperties,
+                     final ReactiveStringRedisTemplate reactiveStringRedisTemplate,
+                     final MeterRegistry meterRegistry) {
+        this.name = name;
+        this.invalidationChannel = nearCacheProperties.getInvalidationChannel();
+        this.reactiveStringRedisTemplate = reactiveStringRedisTemplate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(nearCacheProperties.getMaximumSize())
+                .expireAfterWrite(nearCacheProperties.getExpireAfterWrite())
+                .evictionListener((String nearCacheKey, V value, RemovalCause cause) -> this.unindex(nearCacheKey))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, name);
+    }
+
+    @PostConstruct
+    public void subscribeToInvalidations() {
+        this.invalidationSubscription = this.reactiveStringRedisTemplate.listenToChannel(this.invalidationChannel)
+                .subscribe(
+                        message -> this.onInvalidation(message.getMessage()),
+                        error -> LOGGER.error("Stopped listening for [{}] near cache invalidations due to: {}",
+                                              this.name, error.getMessage()));
+    }
+
+    @PreDestroy
+    public void unsubscribeFromInvalidations() {
+        if (this.invalidationSubscription != null) {
+            this.invalidationSubscription.dispose();
+        }
+    }
+
+    public V getIfPresent(final String key, final String field) {
+        return this.cache.getIfPresent(toNearCacheKey(key, field));
+    }
+
+    /**
+     * The field is indexed both before and after the entry is written, as overwriting an expired entry notifies the
+     * eviction listener of the expired value while the write is in progress
+     */
+    public void put(final String key, final String field, final V value) {
+        this.index(key, field);
+        this.cache.put(toNearCacheKey(key, field), value);
+        this.index(key, field);
+    }
+
+    /**
+     * Drops every field of the given Redis key from this replica's near cache, and notifies the other replicas to do
+     * the same
+     */
+    public Mono<Long> invalidate(final String key) {
+        this.invalidateLocally(key);
+
+        return this.notifyOtherReplicas(key);
+    }
+
+    /**
+     * Notifies the other replicas that the given Redis key was written to, while keeping this replica's near cached
+     * fields of the key, which are expected to be updated by the writer through {@link #put(String, String, Object)}
+     */
+    public Mono<Long> notifyOtherReplicas(final String key) {
+        return this.reactiveStringRedisTemplate.convertAndSend(
+                this.invalidationChannel, String.join(MESSAGE_DELIMITER, this.nodeId, this.name, key));
+    }
+
+    private void onInvalidation(final String message) {
+        final String[] parts = message.split("\\|", 3);
+        if (parts.length < 3 || this.nodeId.equals(parts[0]) || !this.name.equals(parts[1])) {
+            return;
+        }
+
+        this.invalidateLocally(parts[2]);
+    }
+
+    private void invalidateLocally(final String key) {
+        final Set<String> fields = this.fieldsByKey.remove(key);
+        if (fields == null) {
+            return;
+        }
+
+        final Set<String> nearCacheKeys = new HashSet<>();
+        fields.forEach(field -> nearCacheKeys.add(toNearCacheKey(key, field)));
+        this.cache.invalidateAll(nearCacheKeys);
+    }
+
+    private void index(final String key, final String field) {
+        this.fieldsByKey.compute(key, (indexedKey, fields) -> {
+            final Set<String> indexedFields = fields == null ? ConcurrentHashMap.newKeySet() : fields;
+            indexedFields.add(field);
+            return indexedFields;
+        });
+    }
+
+    /**
+     * Drops an evicted or expired entry from the index of the fields held for its Redis key, unless the entry was
+     * replaced by a newer value in the meantime
+     */
+    private void unindex(final String nearCacheKey) {
+        final int delimiterIndex = nearCacheKey.lastIndexOf(FIELD_DELIMITER);
+        final String key = nearCacheKey.substring(0, delimiterIndex);
+        final String field = nearCacheKey.substring(delimiterIndex + FIELD_DELIMITER.length());
+
+        this.fieldsByKey.computeIfPresent(key, (indexedKey, fields) -> {
+            if (!this.cache.asMap().containsKey(nearCacheKey)) {
+                fields.remove(field);
+            }
+
+            return fields.isEmpty() ? null : fields;
+        });
+    }
+
+    private static String toNearCacheKey(final String key, final String field) {
+        return key.concat(FIELD_DELIMITER).concat(field);
+    }
+}
@@ -0,0 +1,191 @@
+package com.learning.movie.service.cache;
+
+import com.learning.movie.config.concurrency.RequestPriority;
+import com.learning.movie.config.properties.CacheNamespaceProperties;
+import com.learning.movie.config.properties.CacheNamespaceProperties.CacheNamespace;
+import com.learning.movie.dto.CachedPaginatedResponse;
+import com.learning.movie.dto.MovieSummaryDto;
+import com.learning.movie.service.suggest.TitlesDiscoveredEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.ReactiveHashOperations;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Stores OMDb search results in Redis as one hash per search, where every field is a page number and every value is
+ * the {@link CachedPaginatedResponse} of that page, so that looking up a single page only reads and deserializes the
+ * ten movies of that page instead of the entire result set
+ * <p />
+ * Pages are additionally held in a {@link NearCache}, so hot searches are served without a round-trip to Redis
+ * <p />
+ * Every page records when it was fetched, and its staleness and expiry are decided from that timestamp against the
+ * {@code search} cache namespace, independently of the other pages of the search. Once a page outlives its soft TTL it
+ * is still served, but the caller provided revalidation is triggered in the background, so searches that keep being
+ * requested are refreshed before they expire and never pay for the OMDb fan-out again. A page past its TTL is a miss
+ * <p />
+ * The hash itself only gets its expiry set when it is created or when a write reloads every page of the search, so
+ * caching a later page never extends the lifetime of the pages cached before it
+ */
+@Component
+public class SearchResultCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SearchResultCache.class);
+
+    private final ReactiveRedisTemplate<String, CachedPaginatedResponse> reactiveRedisTemplate;
+    private final ReactiveHashOperations<String, String, CachedPaginatedResponse> hashOperations;
+    private final NearCache<CachedPaginatedResponse> nearCache;
+    private final CacheNamespace cacheNamespace;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Autowired
+    public SearchResultCache(
+            @Qualifier("searchResultPageRedisTemplate") final ReactiveRedisTemplate<String, CachedPaginatedResponse> reactiveRedisTemplate,
+            @Qualifier("searchResultPageNearCache") final NearCache<CachedPaginatedResponse> nearCache,
+            final CacheNamespaceProperties cacheNamespaceProperties,
+            final ApplicationEventPublisher applicationEventPublisher) {
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.hashOperations = reactiveRedisTemplate.opsForHash();
+        this.nearCache = nearCache;
+        this.cacheNamespace = cacheNamespaceProperties.getNamespace(CacheNamespaceProperties.SEARCH_NAMESPACE);
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    /**
+     * @param revalidator reloads the page into the cache, triggered in the background when the page is stale
+     */
+    public Mono<CachedPaginatedResponse> getPage(final String key, final int pageNumber,
+                                                 final Supplier<Mono<?>> revalidator) {
+        final String field = String.valueOf(pageNumber);
+
+        return Mono.justOrEmpty(this.nearCache.getIfPresent(key, field))
+                .switchIfEmpty(Mono.defer(() -> this.hashOperations.get(key, field)
+                        .doOnNext(page -> this.nearCache.put(key, field, page))))
+                .filter(page -> !this.cacheNamespace.isExpired(page.age()))
+                .doOnNext(page -> this.revalidateIfStale(key, List.of(page), revalidator));
+    }
+
+    /**
+     * Looks up a slice of consecutive pages, starting from {@code fromPage} and spanning up to {@code maxPageCount}
+     * pages, or fewer if the search ends sooner
+     *
+     * @param revalidator reloads the slice into the cache, triggered in the background when the slice is stale
+     * @return the cached pages of the slice sorted by page number, or empty if any page of the slice is not cached or
+     *         has expired
+     */
+    public Mono<List<CachedPaginatedResponse>> getPages(final String key, final int fromPage, final int maxPageCount,
+                                                        final Supplier<Mono<?>> revalidator) {
+        final List<String> fields = IntStream.range(fromPage, fromPage + maxPageCount)
+                .mapToObj(String::valueOf)
+                .toList();
+
+        return Mono.justOrEmpty(selectSlice(
+                        pageNumber -> this.nearCache.getIfPresent(key, String.valueOf(pageNumber)), fromPage, maxPageCount))
+                .switchIfEmpty(Mono.defer(() -> this.hashOperations.multiGet(key, fields)
+                        .mapNotNull(pages -> selectSlice(pageNumber -> pages.get(pageNumber - fromPage), fromPage, maxPageCount))
+                        .doOnNext(pages -> pages.forEach(page ->
+                                this.nearCache.put(key, String.valueOf(page.getPageNumber()), page)))))
+                .filter(pages -> pages.stream().noneMatch(page -> this.cacheNamespace.isExpired(page.age())))
+                .doOnNext(pages -> this.revalidateIfStale(key, pages, revalidator));
+    }
+
+    public Mono<Boolean> putPage(final String key, final CachedPaginatedResponse page) {
+        return this.putPages(key, List.of(page));
+    }
+
+    public Mono<Boolean> putPages(final String key, final List<CachedPaginatedResponse> pages) {
+        final Map<String, CachedPaginatedResponse> pagesByNumber = pages.stream()
+                .collect(Collectors.toMap(page -> String.valueOf(page.getPageNumber()), Function.identity()));
+        if (pagesByNumber.isEmpty()) {
+            return Mono.just(false);
+        }
+
+        return this.hashOperations.putAll(key, pagesByNumber)
+                .flatMap(isStored -> this.expireIfCreatedOrReloaded(key, pagesByNumber).thenReturn(isStored))
+                .flatMap(isStored -> this.nearCache.notifyOtherReplicas(key).thenReturn(isStored))
+                .doOnSuccess(isStored -> pagesByNumber.forEach((field, page) -> this.nearCache.put(key, field, page)))
+                .doOnSuccess(isStored -> this.applicationEventPublisher.publishEvent(new TitlesDiscoveredEvent(
+                        pages.stream()
+                                .flatMap(page -> page.getMovies().stream())
+                                .map(MovieSummaryDto::getTitle)
+                                .toList())));
+    }
+
+    /**
+     * Sets the expiry of the hash when the write created it, which shows as a hash without a TTL, or when the write
+     * holds every page of the search. Any other write leaves the expiry as is
+     */
+    private Mono<Boolean> expireIfCreatedOrReloaded(final String key,
+                                                    final Map<String, CachedPaginatedResponse> pagesByNumber) {
+        final int totalPages = pagesByNumber.values().iterator().next().getTotalPages();
+        final boolean isFullReload = IntStream.rangeClosed(1, Math.max(1, totalPages))
+                .allMatch(pageNumber -> pagesByNumber.containsKey(String.valueOf(pageNumber)));
+
+        return (isFullReload
+                        ? Mono.just(Duration.ZERO)
+                        : this.reactiveRedisTemplate.getExpire(key))
+                .filter(remainingTtl -> remainingTtl.isNegative() || remainingTtl.isZero())
+                .flatMap(remainingTtl -> this.reactiveRedisTemplate.expire(key, this.cacheNamespace.getTtl()));
+    }
+
+    private void revalidateIfStale(final String key, final List<CachedPaginatedResponse> pages,
+                                   final Supplier<Mono<?>> revalidator) {
+        final Duration oldestPageAge = pages.stream()
+                .map(CachedPaginatedResponse::age)
+                .max(Duration::compareTo)
+                .orElse(Duration.ZERO);
+        if (!this.cacheNamespace.isStale(oldestPageAge)) {
+            return;
+        }
+
+        LOGGER.info("Revalidating stale search results with key: {}, cached: {} ago", key, oldestPageAge);
+
+        revalidator.get()
+                .contextWrite(RequestPriority.BACKGROUND.asContext())
+                .subscribe(
+                        null,
+                        error -> LOGGER.warn("Could not revalidate search results with key: {} due to: {}",
+                                             key, error.getMessage()));
+    }
+
+    /**
+     * @param pageLookup returns the page with the given number, or null if it is missing
+     * @return the pages from {@code fromPage} up to {@code maxPageCount} pages or the last page of the search, or null
+     *         if any of them is missing
+     */
+    private static List<CachedPaginatedResponse> selectSlice(final IntFunction<CachedPaginatedResponse> pageLookup,
+                                                             final int fromPage, final int maxPageCount) {
+        final CachedPaginatedResponse firstPage = pageLookup.apply(fromPage);
+        if (firstPage == null) {
+            return null;
+        }
+
+        final int toPage = Math.min(Math.max(1, firstPage.getTotalPages()), fromPage + maxPageCount - 1);
+        final List<CachedPaginatedResponse> pages = new ArrayList<>(Math.max(1, toPage - fromPage + 1));
+        pages.add(firstPage);
+
+        for (int pageNumber = fromPage + 1; pageNumber <= toPage; pageNumber++) {
+            final CachedPaginatedResponse page = pageLookup.apply(pageNumber);
+            if (page == null) {
+                return null;
+            }
+
+            pages.add(page);
+        }
+
+        return pages;
+    }
+}
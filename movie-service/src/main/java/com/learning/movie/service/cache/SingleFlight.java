@@ -0,0 +1,86 @@
+package com.learning.movie.service.cache;
+
+import com.learning.movie.config.concurrency.RequestPriority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key into a single upstream load, in the same spirit as the {@code lockMap}
+ * of {@link com.learning.movie.service.DiscoverMovieServiceImpl}
+ * <p />
+ * The first caller of a key subscribes to the load, and every caller arriving while it is still in flight is replayed
+ * the same signals instead of triggering its own load. A load keeps running until it terminates even if every caller
+ * cancels, so that its side effects (e.g. populating a cache) are not lost.
+ * <p />
+ * A load runs with the {@link RequestPriority} of the caller that started it, so loads are coalesced per priority: an
+ * interactive caller never joins a background load, which would hold it to the background share of the upstream
+ * limits, whereas a background caller joins an interactive load of the same key if there is one
+ * <p />
+ * The number of loads and of coalesced callers are published as {@code movieapp.singleflight.loads} and
+ * {@code movieapp.singleflight.coalesced}, tagged with the name of the single flight
+ */
+public class SingleFlight<V> {
+    private static final String LOADS_METRIC = "movieapp.singleflight.loads";
+    private static final String COALESCED_METRIC = "movieapp.singleflight.coalesced";
+    private static final String NAME_TAG = "name";
+    private static final String PRIORITY_DELIMITER = "|";
+
+    private final ConcurrentHashMap<String, Flux<V>> inFlightLoads = new ConcurrentHashMap<>();
+    private final Counter loadCounter;
+    private final Counter coalescedCounter;
+
+    public SingleFlight(final String name, final MeterRegistry meterRegistry) {
+        this.loadCounter = Counter.builder(LOADS_METRIC)
+                .description("Number of loads that were performed")
+                .tag(NAME_TAG, name)
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder(COALESCED_METRIC)
+                .description("Number of callers that joined a load already in flight instead of performing their own")
+                .tag(NAME_TAG, name)
+                .register(meterRegistry);
+    }
+
+    public Mono<V> execute(final String key, final Supplier<Mono<V>> loader) {
+        return this.executeMany(key, () -> loader.get().flux()).next();
+    }
+
+    public Flux<V> executeMany(final String key, final Supplier<Flux<V>> loader) {
+        return Flux.deferContextual(context -> {
+            final RequestPriority priority = RequestPriority.from(context);
+
+            final Flux<V> interactiveLoad = priority == RequestPriority.BACKGROUND
+                    ? this.inFlightLoads.get(inFlightKey(key, RequestPriority.INTERACTIVE))
+                    : null;
+            if (interactiveLoad != null) {
+                this.coalescedCounter.increment();
+                return interactiveLoad;
+            }
+
+            final AtomicBoolean isLeader = new AtomicBoolean();
+
+            final Flux<V> sharedLoad = this.inFlightLoads.computeIfAbsent(inFlightKey(key, priority), inFlightKey -> {
+                isLeader.set(true);
+
+                return loader.get()
+                        .doFinally(signal -> this.inFlightLoads.remove(inFlightKey))
+                        .contextWrite(priority.asContext())
+                        .replay()
+                        .autoConnect();
+            });
+
+            (isLeader.get() ? this.loadCounter : this.coalescedCounter).increment();
+
+            return sharedLoad;
+        });
+    }
+
+    private static String inFlightKey(final String key, final RequestPriority priority) {
+        return key.concat(PRIORITY_DELIMITER).concat(priority.name());
+    }
+}
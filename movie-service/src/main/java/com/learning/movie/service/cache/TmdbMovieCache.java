@@ -0,0 +1,198 @@
+package com.learning.movie.service.cache;
+
+import com.learning.movie.config.properties.TmdbMovieCacheProperties;
+import com.learning.movie.dto.tmdb.TmdbMovie;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * A read-through cache of TMDB movie details, held in a {@link NearCache} in front of Redis
+ * <p />
+ * Misses are loaded once per movie through a {@link SingleFlight}, however many page views ask for it concurrently,
+ * and stored with a TTL depending on the movie's release date, see {@link TmdbMovieCacheProperties}. The latency of
+ * lookups is published as the {@code movieapp.tmdb.movie.lookup} timer, tagged with the {@code source} that served
+ * it: {@code near}, {@code redis} or {@code upstream}
+ * <p />
+ * Every movie has a version in Redis, bumped whenever the movie is evicted. A load reads the version before calling
+ * TMDB, and its result is only stored if the version is still the same, so a load that started before an eviction, on
+ * any replica, never stores the details the eviction meant to drop
+ */
+@Component
+public class TmdbMovieCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TmdbMovieCache.class);
+
+    private static final String KEY = "movieapp:tmdb-movie:%s";
+    private static final String VERSION_KEY = "movieapp:tmdb-movie-version:%s";
+    private static final Duration VERSION_TTL = Duration.ofDays(1);
+    private static final String INITIAL_VERSION = "0";
+    private static final String FIELD = "details";
+    private static final String LOOKUP_METRIC = "movieapp.tmdb.movie.lookup";
+    private static final String SOURCE_TAG = "source";
+
+    /**
+     * Stores the movie ARGV[1] under KEYS[1] for ARGV[2] milliseconds, unless the version KEYS[2] moved on from ARGV[3]
+     */
+    private static final RedisScript<Long> PUT_IF_VERSION_SCRIPT = RedisScript.of("""
+            if (redis.call('GET', KEYS[2]) or ARGV[4]) ~= ARGV[3] then
+                return 0
+            end
+            redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+            return 1
+            """, Long.class);
+
+    private final ReactiveRedisTemplate<String, TmdbMovie> reactiveRedisTemplate;
+    private final ReactiveStringRedisTemplate reactiveStringRedisTemplate;
+    private final NearCache<TmdbMovie> nearCache;
+    private final TmdbMovieCacheProperties tmdbMovieCacheProperties;
+    private final SingleFlight<TmdbMovie> singleFlight;
+    private final Timer nearLookupTimer;
+    private final Timer redisLookupTimer;
+    private final Timer upstreamLookupTimer;
+
+    @Autowired
+    public TmdbMovieCache(
+            @Qualifier("tmdbMovieRedisTemplate") final ReactiveRedisTemplate<String, TmdbMovie> reactiveRedisTemplate,
+            final ReactiveStringRedisTemplate reactiveStringRedisTemplate,
+            @Qualifier("tmdbMovieNearCache") final NearCache<TmdbMovie> nearCache,
+            final TmdbMovieCacheProperties tmdbMovieCacheProperties,
+            final MeterRegistry meterRegistry) {
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.reactiveStringRedisTemplate = reactiveStringRedisTemplate;
+        this.nearCache = nearCache;
+        this.tmdbMovieCacheProperties = tmdbMovieCacheProperties;
+        this.singleFlight = new SingleFlight<>("tmdbMovieDetails", meterRegistry);
+        this.nearLookupTimer = lookupTimer("near", meterRegistry);
+        this.redisLookupTimer = lookupTimer("redis", meterRegistry);
+        this.upstreamLookupTimer = lookupTimer("upstream", meterRegistry);
+    }
+
+    /**
+     * @param loader loads the movie from TMDB on a miss
+     */
+    public Mono<TmdbMovie> get(final Long movieId, final Supplier<Mono<TmdbMovie>> loader) {
+        final String key = KEY.formatted(movieId);
+
+        return Mono.defer(() -> {
+            final long startNanos = System.nanoTime();
+
+            final TmdbMovie nearCachedMovie = this.nearCache.getIfPresent(key, FIELD);
+            if (nearCachedMovie != null) {
+                this.nearLookupTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                return Mono.just(nearCachedMovie);
+            }
+
+            return this.reactiveRedisTemplate.opsForValue().get(key)
+                    .onErrorResume(error -> {
+                        LOGGER.warn("Could not read cached TMDB movie with key: {} due to: {}", key, error.getMessage());
+                        return Mono.empty();
+                    })
+                    .doOnNext(movie -> {
+                        this.nearCache.put(key, FIELD, movie);
+                        this.redisLookupTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                    })
+                    .switchIfEmpty(Mono.defer(() -> this.singleFlight.execute(key, () -> this.readVersion(movieId)
+                                    .flatMap(version -> loader.get()
+                                            .flatMap(movie -> this.put(movieId, version, movie).thenReturn(movie))))
+                            .doOnNext(movie ->
+                                    this.upstreamLookupTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS))));
+        });
+    }
+
+    /**
+     * Bumps the version of the movie, so that loads in flight do not store it again, then drops its cached details from
+     * Redis and from the near cache of every replica. The near caches are invalidated even if Redis held nothing, as a
+     * replica may still hold details that expired from Redis
+     *
+     * @return whether the movie was cached in Redis
+     */
+    public Mono<Boolean> evict(final Long movieId) {
+        final String key = KEY.formatted(movieId);
+        final String versionKey = VERSION_KEY.formatted(movieId);
+
+        return this.reactiveStringRedisTemplate.opsForValue().increment(versionKey)
+                .flatMap(version -> this.reactiveStringRedisTemplate.expire(versionKey, VERSION_TTL))
+                .then(this.reactiveRedisTemplate.delete(key))
+                .map(deletedCount -> deletedCount > 0)
+                .flatMap(isEvicted -> this.nearCache.invalidate(key).thenReturn(isEvicted));
+    }
+
+    private Mono<String> readVersion(final Long movieId) {
+        return this.reactiveStringRedisTemplate.opsForValue().get(VERSION_KEY.formatted(movieId))
+                .defaultIfEmpty(INITIAL_VERSION)
+                .onErrorResume(error -> {
+                    LOGGER.warn("Could not read the version of TMDB movie: {} due to: {}", movieId, error.getMessage());
+                    return Mono.just(INITIAL_VERSION);
+                });
+    }
+
+    /**
+     * Stores the movie unless it was evicted since {@code version} was read
+     */
+    private Mono<Boolean> put(final Long movieId, final String version, final TmdbMovie movie) {
+        final String key = KEY.formatted(movieId);
+        final String serializedMovie = StandardCharsets.UTF_8.decode(
+                this.reactiveRedisTemplate.getSerializationContext().getValueSerializationPair().write(movie)).toString();
+
+        return this.reactiveStringRedisTemplate.execute(PUT_IF_VERSION_SCRIPT,
+                                                        List.of(key, VERSION_KEY.formatted(movieId)),
+                                                        List.of(serializedMovie,
+                                                                String.valueOf(this.ttlOf(movie).toMillis()),
+                                                                version,
+                                                                INITIAL_VERSION))
+                .next()
+                .map(storedCount -> storedCount > 0)
+                .flatMap(isStored -> {
+                    if (!isStored) {
+                        LOGGER.debug("Not caching TMDB movie with key: {}, as it was evicted while being loaded", key);
+                        return Mono.just(false);
+                    }
+
+                    return this.nearCache.notifyOtherReplicas(key)
+                            .doOnSuccess(receiverCount -> this.nearCache.put(key, FIELD, movie))
+                            .thenReturn(true);
+                })
+                .onErrorResume(error -> {
+                    LOGGER.warn("Could not cache TMDB movie with key: {} due to: {}", key, error.getMessage());
+                    return Mono.just(false);
+                });
+    }
+
+    private Duration ttlOf(final TmdbMovie movie) {
+        final LocalDate releaseDate = movie.getReleaseDate();
+        final LocalDate today = LocalDate.now();
+
+        if (releaseDate == null
+            || releaseDate.isAfter(today.minusDays(this.tmdbMovieCacheProperties.getRecentReleaseAge().toDays()))) {
+            return this.tmdbMovieCacheProperties.getRecentReleaseTtl();
+        }
+
+        if (releaseDate.isBefore(today.minusDays(this.tmdbMovieCacheProperties.getCatalogAge().toDays()))) {
+            return this.tmdbMovieCacheProperties.getCatalogTtl();
+        }
+
+        return this.tmdbMovieCacheProperties.getTtl();
+    }
+
+    private static Timer lookupTimer(final String source, final MeterRegistry meterRegistry) {
+        return Timer.builder(LOOKUP_METRIC)
+                .description("Latency of TMDB movie details lookups, by the source that served them")
+                .tag(SOURCE_TAG, source)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,73 @@
+package com.learning.movie.service.cache;
+
+import com.learning.movie.config.properties.CacheNamespaceProperties;
+import com.learning.movie.dto.tmdb.provider.WatchProvidersResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * A read-through Redis cache of TMDB watch providers keyed by TMDB movie id, shared by the API and the streaming
+ * availability scheduler, so that both are served by a single upstream fetch per movie per TTL of the
+ * {@code watch-providers} cache namespace
+ * <p />
+ * Misses are loaded once per movie through a {@link SingleFlight}, however many callers ask for it concurrently
+ */
+@Component
+public class WatchProvidersCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(WatchProvidersCache.class);
+
+    private static final String KEY = "movieapp:watch-providers:%s";
+
+    private final ReactiveRedisTemplate<String, WatchProvidersResponse> reactiveRedisTemplate;
+    private final Duration ttl;
+    private final SingleFlight<WatchProvidersResponse> singleFlight;
+
+    @Autowired
+    public WatchProvidersCache(
+            @Qualifier("watchProvidersRedisTemplate") final ReactiveRedisTemplate<String, WatchProvidersResponse> reactiveRedisTemplate,
+            final CacheNamespaceProperties cacheNamespaceProperties,
+            final MeterRegistry meterRegistry) {
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.ttl = cacheNamespaceProperties.getNamespace(CacheNamespaceProperties.WATCH_PROVIDERS_NAMESPACE).getTtl();
+        this.singleFlight = new SingleFlight<>("watchProviders", meterRegistry);
+    }
+
+    /**
+     * @param loader loads the watch providers from TMDB on a miss
+     */
+    public Mono<WatchProvidersResponse> get(final Long movieId, final Supplier<Mono<WatchProvidersResponse>> loader) {
+        final String key = KEY.formatted(movieId);
+
+        return this.reactiveRedisTemplate.opsForValue().get(key)
+                .onErrorResume(error -> {
+                    LOGGER.warn("Could not read cached watch providers with key: {} due to: {}", key, error.getMessage());
+                    return Mono.empty();
+                })
+                .switchIfEmpty(Mono.defer(() -> this.singleFlight.execute(key, () -> loader.get()
+                        .flatMap(watchProviders -> this.reactiveRedisTemplate.opsForValue()
+                                .set(key, watchProviders, this.ttl)
+                                .onErrorResume(error -> {
+                                    LOGGER.warn("Could not cache watch providers with key: {} due to: {}",
+                                                key, error.getMessage());
+                                    return Mono.just(false);
+                                })
+                                .thenReturn(watchProviders)))));
+    }
+
+    /**
+     * @return whether the watch providers of the movie were cached
+     */
+    public Mono<Boolean> evict(final Long movieId) {
+        return this.reactiveRedisTemplate.delete(KEY.formatted(movieId))
+                .map(deletedCount -> deletedCount > 0);
+    }
+}
@@ -9,14 +9,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.util.retry.Retry;
 
 import java.time.Duration;
 import java.util.ArrayList;
@@ -131,10 +128,7 @@ public class OpenAiService {
                         .path("message")
                         .path("content"))
                 .filter(jsonNode -> !jsonNode.isMissingNode() && !jsonNode.isNull())
-                .map(this::jsonNodeToRecord)
-                .retryWhen(Retry.backoff(3, Duration.ofSeconds(2))
-                        .filter(throwable -> throwable instanceof WebClientResponseException e &&
-                                                       HttpStatus.TOO_MANY_REQUESTS.isSameCodeAs(e.getStatusCode())));
+                .map(this::jsonNodeToRecord);
     }
 
     private TmdbReviewSummary mergeJsonChunks(List<TmdbReviewSummary> chunks) {
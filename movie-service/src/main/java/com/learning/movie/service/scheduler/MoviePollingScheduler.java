@@ -2,6 +2,7 @@ package com.learning.movie.service.scheduler;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learning.movie.config.concurrency.RequestPriority;
 import com.learning.movie.service.DiscoverMovieService;
 import com.learning.movie.service.publisher.MoviePublisherService;
 import org.slf4j.Logger;
@@ -41,6 +42,7 @@ public class MoviePollingScheduler {
                     }
                 })
                 .doOnError(error -> LOGGER.error("Error while preloading newly released movies due to: {}", error.getMessage()))
+                .contextWrite(RequestPriority.BACKGROUND.asContext())
                 .subscribe();
     }
 }
@@ -1,5 +1,6 @@
 package com.learning.movie.service.scheduler;
 
+import com.learning.movie.config.concurrency.RequestPriority;
 import com.learning.movie.config.properties.TwilioSendGridEmailApiProperties;
 import com.learning.movie.dto.sendgrid.SendGridEmailRequest;
 import com.learning.movie.dto.subscription.StreamingPlatform;
@@ -9,15 +10,13 @@ import com.learning.movie.dto.tmdb.provider.WatchProvidersResponse;
 import com.learning.movie.mapper.NotificationMapper;
 import com.learning.movie.model.subscription.MovieReleaseSubscription;
 import com.learning.movie.model.subscription.SubscriptionPlatform;
-import com.learning.movie.repository.TmdbRepository;
 import com.learning.movie.repository.subscription.MovieStreamingReleaseSubscriptionRepository;
 import com.learning.movie.repository.subscription.SubscriptionPlatformRepository;
 import com.learning.movie.service.subscription.notification.EmailNotificationService;
+import com.learning.movie.service.tmdb.TmdbMovieService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
@@ -30,33 +29,27 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Service
 public class StreamingAvailabilityScheduler {
     private static final Logger LOGGER = LoggerFactory.getLogger(StreamingAvailabilityScheduler.class);
 
-    private static final String CACHE_PREFIX_KEY = "watchProvidersForMovie:";
-
     private final MovieStreamingReleaseSubscriptionRepository movieSubscriptionRepository;
     private final SubscriptionPlatformRepository platformRepository;
-    private final TmdbRepository tmdbRepository;
-    private final ReactiveRedisTemplate<String, WatchProvidersResponse> reactiveRedisTemplate;
+    private final TmdbMovieService tmdbMovieService;
     private final EmailNotificationService<SendGridEmailRequest> emailNotificationService;
     private final TwilioSendGridEmailApiProperties twilioSendGridEmailApiProperties;
 
     @Autowired
     public StreamingAvailabilityScheduler(final MovieStreamingReleaseSubscriptionRepository movieSubscriptionRepository,
                                           final SubscriptionPlatformRepository platformRepository,
-                                          final TmdbRepository tmdbRepository,
-                                          @Qualifier("watchProvidersRedisTemplate") final ReactiveRedisTemplate<String, WatchProvidersResponse> reactiveRedisTemplate,
+                                          final TmdbMovieService tmdbMovieService,
                                           final EmailNotificationService<SendGridEmailRequest> emailNotificationService,
                                           final TwilioSendGridEmailApiProperties twilioSendGridEmailApiProperties) {
         this.movieSubscriptionRepository = movieSubscriptionRepository;
         this.platformRepository = platformRepository;
-        this.tmdbRepository = tmdbRepository;
-        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.tmdbMovieService = tmdbMovieService;
         this.emailNotificationService = emailNotificationService;
         this.twilioSendGridEmailApiProperties = twilioSendGridEmailApiProperties;
     }
@@ -65,6 +58,7 @@ public class StreamingAvailabilityScheduler {
     public void pollForPlatformReleaseSubscriptions() {
         this.checkStreamingAvailability()
                 .doOnSubscribe(subscription -> LOGGER.info("Polling for movie streaming platform release subscriptions..."))
+                .contextWrite(RequestPriority.BACKGROUND.asContext())
                 .subscribe();
     }
 
@@ -80,7 +74,8 @@ public class StreamingAvailabilityScheduler {
      *     <li>Group subscriptions by their TMDB movie ID</li>
      *     <li>Get the corresponding requested platforms for each subscription</li>
      *     <li>For each streaming platforms associated to each subscription, validate whether the streaming platform
-     *         has been released by calling TMDB API to fetch live data
+     *         has been released by fetching the movie's watch providers, which are shared with the API through the
+     *         {@link com.learning.movie.service.cache.WatchProvidersCache}
      *     </li>
      *     <li>For each platform that has released the movie append it to the set of platforms to be included in the
      *         email notification for that subscription
@@ -99,7 +94,7 @@ public class StreamingAvailabilityScheduler {
                 .flatMap(groupedSubscriptions -> {
                     LOGGER.info("Group with key: {}", groupedSubscriptions.key());
 
-                    final String tmdbId = String.valueOf(groupedSubscriptions.key());
+                    final Long tmdbId = groupedSubscriptions.key();
 
                     // 1. Collect subscriptions for this movieId
                     return groupedSubscriptions.collectList()
@@ -120,9 +115,9 @@ public class StreamingAvailabilityScheduler {
                                                             Collectors.mapping(SubscriptionPlatform::getPlatform, Collectors.toCollection(HashSet::new))
                                                     ));
 
-                                            // 4. Fetch streaming platforms from TMDB for this movieId then filter each
+                                            // 4. Fetch streaming platforms for this movieId then filter each
                                             //    subscription for the same movie of their respective requested platforms
-                                            return this.tmdbRepository.getMovieWatchProviders(tmdbId)
+                                            return this.tmdbMovieService.getMovieWatchProviders(tmdbId)
                                                     .flatMapMany(tmdbResponse -> Flux.fromIterable(subscriptionsForSameMovie)
                                                             .flatMap(subscription -> {
                                                                 final Set<StreamingPlatform> requestedPlatforms = platformsBySubId
@@ -165,17 +160,4 @@ public class StreamingAvailabilityScheduler {
                 .filter(streamingPlatforms::contains)
                 .collect(Collectors.toCollection(HashSet::new));
     }
-
-    private Mono<List<StreamingPlatform>> checkCacheIfPresent(final String subscriptionId,
-                                                              final Set<StreamingPlatform> streamingPlatforms) {
-        return this.reactiveRedisTemplate.opsForValue()
-                .get(CACHE_PREFIX_KEY.concat(subscriptionId))
-                .map(cachedResponse -> cachedResponse.getResults().get("US").getFlatrate()
-                        .stream()
-                        .map(WatchProvider::getProviderName)
-                        .map(StreamingPlatform::fromDisplayName)
-                        .filter(streamingPlatforms::contains)
-                        .toList())
-                .filter(Predicate.not(List::isEmpty));
-    }
 }
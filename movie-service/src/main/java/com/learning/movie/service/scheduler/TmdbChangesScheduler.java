@@ -0,0 +1,199 @@
+package com.learning.movie.service.scheduler;
+
+import com.learning.movie.config.concurrency.RequestPriority;
+import com.learning.movie.config.properties.TmdbChangesProperties;
+import com.learning.movie.dto.tmdb.TmdbChangesResponse;
+import com.learning.movie.repository.TmdbRepository;
+import com.learning.movie.service.DiscoverMovieService;
+import com.learning.movie.service.cache.TmdbMovieCache;
+import com.learning.movie.service.cache.WatchProvidersCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Keeps the TMDB caches fresh by polling TMDB's movie changes feed and evicting only the movies that changed, so that
+ * the caches can hold long TTLs without serving stale data
+ * <p />
+ * Every run reads the changes from the high-water mark, i.e. the date the last successful run started, up to today, and
+ * evicts the changed movies from the movie details and watch providers caches, as well as today's new movies if any of
+ * them changed. The high-water mark is kept in Redis, so it survives restarts and is shared by every replica, and a
+ * Redis lock makes sure a single replica runs at a time. Since the feed is per day, consecutive runs overlap on the
+ * current day, which is harmless as evictions are idempotent. TMDB only serves the last 14 days of changes, so a
+ * high-water mark older than that is moved forward, leaving the older changes to the TTLs.
+ * <p />
+ * The changed movies and the entries they evicted are counted in {@code movieapp.tmdb.changes.*}, the latter tagged
+ * with the cache they were evicted from. TMDB is reached through {@code tmdb.base.url}, which can point to a local
+ * stub of {@code /3/movie/changes}
+ */
+@Service
+@ConditionalOnProperty(prefix = "movieapp.tmdb-changes", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TmdbChangesScheduler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TmdbChangesScheduler.class);
+
+    private static final String HIGH_WATER_MARK_KEY = "movieapp:tmdb-changes:high-water-mark";
+    private static final String LOCK_KEY = "movieapp:tmdb-changes:lock";
+    private static final Duration LOCK_TTL = Duration.ofMinutes(5);
+    private static final int MAX_CHANGES_DAYS = 14;
+    private static final int EVICTION_BATCH_SIZE = 100;
+
+    /**
+     * Deletes the lock KEYS[1] only if it is still held by the node ARGV[1], so that a run outliving the lock TTL never
+     * releases the lock another replica acquired since
+     */
+    private static final RedisScript<Long> RELEASE_LOCK_SCRIPT = RedisScript.of("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private static final String CHANGED_METRIC = "movieapp.tmdb.changes.changed";
+    private static final String EVICTED_METRIC = "movieapp.tmdb.changes.evicted";
+    private static final String CACHE_TAG = "cache";
+
+    private final TmdbRepository tmdbRepository;
+    private final TmdbMovieCache tmdbMovieCache;
+    private final WatchProvidersCache watchProvidersCache;
+    private final DiscoverMovieService discoverMovieService;
+    private final ReactiveStringRedisTemplate reactiveStringRedisTemplate;
+    private final TmdbChangesProperties tmdbChangesProperties;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Counter changedCounter;
+    private final Counter detailsEvictedCounter;
+    private final Counter watchProvidersEvictedCounter;
+    private final Counter newMoviesEvictedCounter;
+
+    @Autowired
+    public TmdbChangesScheduler(final TmdbRepository tmdbRepository,
+                                final TmdbMovieCache tmdbMovieCache,
+                                final WatchProvidersCache watchProvidersCache,
+                                final DiscoverMovieService discoverMovieService,
+                                final ReactiveStringRedisTemplate reactiveStringRedisTemplate,
+                                final TmdbChangesProperties tmdbChangesProperties,
+                                final MeterRegistry meterRegistry) {
+        this.tmdbRepository = tmdbRepository;
+        this.tmdbMovieCache = tmdbMovieCache;
+        this.watchProvidersCache = watchProvidersCache;
+        this.discoverMovieService = discoverMovieService;
+        this.reactiveStringRedisTemplate = reactiveStringRedisTemplate;
+        this.tmdbChangesProperties = tmdbChangesProperties;
+        this.changedCounter = Counter.builder(CHANGED_METRIC)
+                .description("Number of changed movies read from the TMDB changes feed")
+                .register(meterRegistry);
+        this.detailsEvictedCounter = evictedCounter("tmdb-movie", meterRegistry);
+        this.watchProvidersEvictedCounter = evictedCounter("watch-providers", meterRegistry);
+        this.newMoviesEvictedCounter = evictedCounter("newly-released-movies", meterRegistry);
+    }
+
+    @Scheduled(cron = "${movieapp.tmdb-changes.cron:0 */10 * * * ?}", zone = "UTC")
+    public void pollForMovieChanges() {
+        this.syncMovieChanges()
+                .doOnSubscribe(subscription -> LOGGER.info("Polling for TMDB movie changes..."))
+                .doOnError(error -> LOGGER.error("Error while syncing TMDB movie changes due to: {}", error.getMessage()))
+                .contextWrite(RequestPriority.BACKGROUND.asContext())
+                .subscribe();
+    }
+
+    public Mono<Void> syncMovieChanges() {
+        final LocalDate today = LocalDate.now(ZoneOffset.UTC);
+
+        return this.reactiveStringRedisTemplate.opsForValue()
+                .setIfAbsent(LOCK_KEY, this.nodeId, LOCK_TTL)
+                .filter(Boolean::booleanValue)
+                .flatMap(isLocked -> this.readHighWaterMark(today)
+                        .flatMap(startDate -> this.evictChangedMovies(startDate, today))
+                        .then(this.reactiveStringRedisTemplate.opsForValue().set(HIGH_WATER_MARK_KEY, today.toString()))
+                        .onErrorResume(error -> this.releaseLock().then(Mono.error(error)))
+                        .then(this.releaseLock()))
+                .then();
+    }
+
+    private Mono<LocalDate> readHighWaterMark(final LocalDate today) {
+        final LocalDate oldestAvailableDate = today.minusDays(MAX_CHANGES_DAYS - 1);
+
+        return this.reactiveStringRedisTemplate.opsForValue()
+                .get(HIGH_WATER_MARK_KEY)
+                .map(LocalDate::parse)
+                .defaultIfEmpty(today.minusDays(this.tmdbChangesProperties.getInitialLookback().toDays()))
+                .map(highWaterMark -> {
+                    if (highWaterMark.isBefore(oldestAvailableDate)) {
+                        LOGGER.warn("TMDB movie changes high-water mark: {} is older than the feed, syncing from: {}",
+                                    highWaterMark, oldestAvailableDate);
+                        return oldestAvailableDate;
+                    }
+
+                    return highWaterMark;
+                });
+    }
+
+    private Mono<Void> evictChangedMovies(final LocalDate startDate, final LocalDate endDate) {
+        return this.readChangedMovieIds(startDate, endDate)
+                .distinct()
+                .doOnNext(movieId -> this.changedCounter.increment())
+                .buffer(EVICTION_BATCH_SIZE)
+                .concatMap(changedMovieIds -> Flux.fromIterable(changedMovieIds)
+                        .flatMap(movieId -> Mono.zip(this.tmdbMovieCache.evict(movieId),
+                                                     this.watchProvidersCache.evict(movieId))
+                                         .doOnNext(evictions -> {
+                                             if (evictions.getT1()) {
+                                                 this.detailsEvictedCounter.increment();
+                                             }
+                                             if (evictions.getT2()) {
+                                                 this.watchProvidersEvictedCounter.increment();
+                                             }
+                                         }),
+                                 this.tmdbChangesProperties.getEvictionConcurrency())
+                        .then(this.discoverMovieService.evictChangedNewMovies(changedMovieIds))
+                        .doOnNext(isEvicted -> {
+                            if (isEvicted) {
+                                this.newMoviesEvictedCounter.increment();
+                            }
+                        }))
+                .then()
+                .doOnSuccess(ignored -> LOGGER.info("Synced TMDB movie changes from: {} to: {}", startDate, endDate));
+    }
+
+    private Flux<Long> readChangedMovieIds(final LocalDate startDate, final LocalDate endDate) {
+        return this.tmdbRepository.getMovieChanges(startDate, endDate, 1)
+                .flatMapMany(firstPage -> Flux.range(2, Math.max(0, firstPage.totalPages() - 1))
+                        .concatMap(page -> this.tmdbRepository.getMovieChanges(startDate, endDate, page))
+                        .startWith(firstPage))
+                .flatMapIterable(changesPage -> Optional.ofNullable(changesPage.results()).orElse(List.of()))
+                .map(TmdbChangesResponse.Change::id);
+    }
+
+    private Mono<Boolean> releaseLock() {
+        return this.reactiveStringRedisTemplate.execute(RELEASE_LOCK_SCRIPT, List.of(LOCK_KEY), List.of(this.nodeId))
+                .next()
+                .map(deletedCount -> deletedCount > 0)
+                .doOnNext(isReleased -> {
+                    if (!isReleased) {
+                        LOGGER.warn("TMDB movie changes lock expired before the sync completed");
+                    }
+                });
+    }
+
+    private static Counter evictedCounter(final String cache, final MeterRegistry meterRegistry) {
+        return Counter.builder(EVICTED_METRIC)
+                .description("Number of cache entries evicted because their movie changed on TMDB")
+                .tag(CACHE_TAG, cache)
+                .register(meterRegistry);
+    }
+}
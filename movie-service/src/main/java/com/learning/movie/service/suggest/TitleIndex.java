@@ -0,0 +1,286 @@
+package com.learning.movie.service.suggest;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Compressed prefix trie (radix tree) of movie titles, where every edge holds the longest run of characters shared by
+ * the titles below it, so that a title costs at most one new node and one node split
+ * <p />
+ * Titles are indexed by their normalized form (lower-cased, without diacritics or punctuation) and, when they start
+ * with an article, by their normalized form without it, so that both "the dark" and "dark" suggest "The Dark Knight".
+ * A node keeps the title it was indexed for apart from the titles it is an alias of, so an alias never takes the place
+ * of a real title, e.g. "Dark" still gets indexed after "The Dark". Suggestions are returned in alphabetical order of
+ * their normalized form.
+ * <p />
+ * Lookups share a read lock and insertions take a write lock, so the index can be queried while it keeps growing
+ */
+public class TitleIndex {
+    private static final Pattern DIACRITICS_PATTERN = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC_PATTERN = Pattern.compile("[^\\p{Alnum}]+");
+    private static final Pattern LEADING_ARTICLE_PATTERN = Pattern.compile("^(the|a|an) ");
+    private static final String SPACE = " ";
+
+    // Rough size of a node with its children map entry, used to estimate the memory footprint of the index
+    private static final int ESTIMATED_NODE_BYTES = 120;
+
+    private final Node root = new Node("", null);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int maxTitles;
+
+    private int titleCount;
+    private int nodeCount = 1;
+    private long characterCount;
+
+    public TitleIndex(final int maxTitles) {
+        this.maxTitles = maxTitles;
+    }
+
+    /**
+     * @return whether the title was not indexed yet and got added, i.e. {@code false} for known titles and once the
+     *         index holds its maximum number of titles
+     */
+    public boolean add(final String title) {
+        final String key = normalize(title);
+        if (key.isEmpty()) {
+            return false;
+        }
+
+        this.lock.writeLock().lock();
+        try {
+            if (this.titleCount >= this.maxTitles) {
+                return false;
+            }
+
+            final boolean isAdded = this.insert(key, title, false);
+            if (isAdded) {
+                this.titleCount++;
+                this.characterCount += title.length();
+
+                final String keyWithoutArticle = LEADING_ARTICLE_PATTERN.matcher(key).replaceFirst("");
+                if (!keyWithoutArticle.equals(key)) {
+                    this.insert(keyWithoutArticle, title, true);
+                }
+            }
+
+            return isAdded;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    public List<String> suggest(final String prefix, final int limit) {
+        final String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        this.lock.readLock().lock();
+        try {
+            final Node prefixNode = this.findPrefixNode(key);
+            if (prefixNode == null) {
+                return Collections.emptyList();
+            }
+
+            final Set<String> suggestions = new LinkedHashSet<>();
+            collectTitles(prefixNode, limit, suggestions);
+
+            return new ArrayList<>(suggestions);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public int getTitleCount() {
+        this.lock.readLock().lock();
+        try {
+            return this.titleCount;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public int getNodeCount() {
+        this.lock.readLock().lock();
+        try {
+            return this.nodeCount;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return an estimate of the heap used by the index, based on its number of nodes and indexed characters
+     */
+    public long getEstimatedMemoryBytes() {
+        this.lock.readLock().lock();
+        try {
+            return (long) this.nodeCount * ESTIMATED_NODE_BYTES + this.characterCount;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param isAlias whether the key is an alias of the title, i.e. its normalized form without its leading article
+     */
+    private boolean insert(final String key, final String title, final boolean isAlias) {
+        Node node = this.root;
+        int position = 0;
+
+        while (position < key.length()) {
+            final Node child = node.getChild(key.charAt(position));
+
+            if (child == null) {
+                final Node leaf = new Node(key.substring(position), null);
+                node.putChild(leaf);
+                this.nodeCount++;
+                this.characterCount += key.length() - position;
+                node = leaf;
+                break;
+            }
+
+            final int commonLength = commonPrefixLength(child.label, key, position);
+
+            if (commonLength < child.label.length()) {
+                final Node split = new Node(child.label.substring(0, commonLength), null);
+                child.label = child.label.substring(commonLength);
+                split.putChild(child);
+                node.putChild(split);
+                this.nodeCount++;
+                node = split;
+            } else {
+                node = child;
+            }
+
+            position += commonLength;
+        }
+
+        if (isAlias) {
+            return node.addAliasTitle(title);
+        }
+        if (node.title != null) {
+            return false;
+        }
+
+        node.title = title;
+        return true;
+    }
+
+    /**
+     * @return the node holding every title that starts with the key, or {@code null} if there is none
+     */
+    private Node findPrefixNode(final String key) {
+        Node node = this.root;
+        int position = 0;
+
+        while (position < key.length()) {
+            final Node child = node.getChild(key.charAt(position));
+            if (child == null) {
+                return null;
+            }
+
+            final int commonLength = commonPrefixLength(child.label, key, position);
+            if (position + commonLength == key.length()) {
+                return child;
+            }
+            if (commonLength < child.label.length()) {
+                return null;
+            }
+
+            node = child;
+            position += commonLength;
+        }
+
+        return node;
+    }
+
+    private static void collectTitles(final Node node, final int limit, final Set<String> titles) {
+        if (node.title != null) {
+            titles.add(node.title);
+        }
+        if (node.aliasTitles != null) {
+            for (final String aliasTitle : node.aliasTitles) {
+                if (titles.size() >= limit) {
+                    return;
+                }
+                titles.add(aliasTitle);
+            }
+        }
+
+        if (node.children == null) {
+            return;
+        }
+
+        for (final Node child : node.children.values()) {
+            if (titles.size() >= limit) {
+                return;
+            }
+            collectTitles(child, limit, titles);
+        }
+    }
+
+    private static int commonPrefixLength(final String label, final String key, final int keyOffset) {
+        final int maxLength = Math.min(label.length(), key.length() - keyOffset);
+        int length = 0;
+
+        while (length < maxLength && label.charAt(length) == key.charAt(keyOffset + length)) {
+            length++;
+        }
+
+        return length;
+    }
+
+    static String normalize(final String text) {
+        if (text == null) {
+            return "";
+        }
+
+        final String withoutDiacritics = DIACRITICS_PATTERN
+                .matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("");
+
+        return NON_ALPHANUMERIC_PATTERN.matcher(withoutDiacritics.toLowerCase(Locale.ROOT))
+                .replaceAll(SPACE)
+                .trim();
+    }
+
+    private static final class Node {
+        private String label;
+        private String title;
+        private Set<String> aliasTitles;
+        private TreeMap<Character, Node> children;
+
+        private Node(final String label, final String title) {
+            this.label = label;
+            this.title = title;
+        }
+
+        private Node getChild(final char firstCharacter) {
+            return this.children == null ? null : this.children.get(firstCharacter);
+        }
+
+        private boolean addAliasTitle(final String aliasTitle) {
+            if (this.aliasTitles == null) {
+                this.aliasTitles = new LinkedHashSet<>();
+            }
+            return this.aliasTitles.add(aliasTitle);
+        }
+
+        private void putChild(final Node child) {
+            if (this.children == null) {
+                this.children = new TreeMap<>();
+            }
+            this.children.put(child.label.charAt(0), child);
+        }
+    }
+}
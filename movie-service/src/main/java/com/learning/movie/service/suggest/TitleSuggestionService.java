@@ -0,0 +1,108 @@
+package com.learning.movie.service.suggest;
+
+import com.learning.movie.config.properties.SearchProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Suggests known movie titles from an in-memory {@link TitleIndex} and corrects misspelled queries with an in-memory
+ * {@link TrigramIndex}, without ever calling an upstream API
+ * <p />
+ * Both indexes are seeded with the titles of {@code movie_details} on startup, then grow incrementally with every
+ * {@link TitlesDiscoveredEvent}, i.e. whenever search results or new movies are cached or a movie is persisted. The
+ * size of the prefix index is published as the {@code movieapp.suggest.index.titles}, {@code movieapp.suggest.index.nodes}
+ * and {@code movieapp.suggest.index.memory} gauges
+ */
+@Service
+public class TitleSuggestionService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TitleSuggestionService.class);
+
+    private static final String TITLE_SELECTION_SQL_STATEMENT = "SELECT title FROM movie_details";
+    private static final String TITLE_COLUMN = "title";
+
+    private final TitleIndex titleIndex;
+    private final TrigramIndex trigramIndex;
+    private final DatabaseClient databaseClient;
+    private final SearchProperties searchProperties;
+
+    @Autowired
+    public TitleSuggestionService(final DatabaseClient databaseClient,
+                                  final SearchProperties searchProperties,
+                                  final MeterRegistry meterRegistry) {
+        this.titleIndex = new TitleIndex(searchProperties.getMaxSuggestionTitles());
+        this.trigramIndex = new TrigramIndex(searchProperties.getMaxSuggestionTitles());
+        this.databaseClient = databaseClient;
+        this.searchProperties = searchProperties;
+
+        Gauge.builder("movieapp.suggest.index.titles", this.titleIndex, TitleIndex::getTitleCount)
+                .description("Number of titles held by the suggestion index")
+                .register(meterRegistry);
+        Gauge.builder("movieapp.suggest.index.nodes", this.titleIndex, TitleIndex::getNodeCount)
+                .description("Number of nodes of the suggestion index")
+                .register(meterRegistry);
+        Gauge.builder("movieapp.suggest.index.memory", this.titleIndex, TitleIndex::getEstimatedMemoryBytes)
+                .description("Estimated heap used by the suggestion index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public List<String> suggest(final String prefix, final Integer limit) {
+        final int maxSuggestions = this.searchProperties.getMaxSuggestions();
+        return this.titleIndex.suggest(prefix, limit == null ? maxSuggestions : Math.min(limit, maxSuggestions));
+    }
+
+    /**
+     * Queries shorter than {@code min-correction-query-length} are never corrected, and longer ones may be corrected by
+     * up to one edit per three characters, capped by {@code max-correction-edit-distance}, so that a short query is
+     * not rewritten into an unrelated title
+     *
+     * @return the known title closest to a query that is not a known title itself, to re-issue a search that found
+     *         nothing with
+     */
+    public Optional<String> correct(final String query) {
+        final int queryLength = TitleIndex.normalize(query).length();
+        if (queryLength < this.searchProperties.getMinCorrectionQueryLength()) {
+            return Optional.empty();
+        }
+
+        final int maxEditDistance = Math.min(this.searchProperties.getMaxCorrectionEditDistance(), queryLength / 3);
+        if (maxEditDistance < 1) {
+            return Optional.empty();
+        }
+
+        return this.trigramIndex.findClosest(query, maxEditDistance)
+                .filter(correctedQuery -> !correctedQuery.equalsIgnoreCase(query));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void indexPersistedTitles() {
+        this.databaseClient.sql(TITLE_SELECTION_SQL_STATEMENT)
+                .map((row, metadata) -> row.get(TITLE_COLUMN, String.class))
+                .all()
+                .doOnNext(this.trigramIndex::add)
+                .filter(this.titleIndex::add)
+                .count()
+                .subscribe(
+                        indexedTitleCount -> LOGGER.info("Indexed {} persisted titles for suggestions", indexedTitleCount),
+                        error -> LOGGER.warn("Could not index persisted titles for suggestions due to: {}",
+                                             error.getMessage()));
+    }
+
+    @EventListener
+    public void indexDiscoveredTitles(final TitlesDiscoveredEvent event) {
+        event.titles().forEach(title -> {
+            this.titleIndex.add(title);
+            this.trigramIndex.add(title);
+        });
+    }
+}
@@ -0,0 +1,8 @@
+package com.learning.movie.service.suggest;
+
+import java.util.Collection;
+
+/**
+ * Published whenever movie titles are persisted or cached, so that they can be suggested without calling an upstream
+ */
+public record TitlesDiscoveredEvent(Collection<String> titles) {}
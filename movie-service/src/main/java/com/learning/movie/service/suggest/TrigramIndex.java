@@ -0,0 +1,161 @@
+package com.learning.movie.service.suggest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index from character trigrams to the titles containing them, used to find the known title closest to a
+ * misspelled query
+ * <p />
+ * Titles sharing the most trigrams with the query are shortlisted, then ranked by their Levenshtein distance to the
+ * query, so that a typo costs one or two edits instead of a missed search. Titles are normalized the same way as in
+ * {@link TitleIndex} and padded with two leading spaces and a trailing one, so that the first characters of a title
+ * weigh as much as the others
+ */
+public class TrigramIndex {
+    private static final Pattern LEADING_ARTICLE_PATTERN = Pattern.compile("^(the|a|an) ");
+    private static final String LEADING_PADDING = "  ";
+    private static final String TRAILING_PADDING = " ";
+    private static final int TRIGRAM_LENGTH = 3;
+    private static final int MAX_SHORTLISTED_TITLES = 20;
+
+    private final List<String> titles = new ArrayList<>();
+    private final List<String> normalizedTitles = new ArrayList<>();
+    private final Map<String, Integer> titleIdsByNormalizedTitle = new HashMap<>();
+    private final Map<String, List<Integer>> titleIdsByTrigram = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int maxTitles;
+
+    public TrigramIndex(final int maxTitles) {
+        this.maxTitles = maxTitles;
+    }
+
+    public boolean add(final String title) {
+        final String normalizedTitle = TitleIndex.normalize(title);
+        if (normalizedTitle.isEmpty()) {
+            return false;
+        }
+
+        this.lock.writeLock().lock();
+        try {
+            if (this.titles.size() >= this.maxTitles || this.titleIdsByNormalizedTitle.containsKey(normalizedTitle)) {
+                return false;
+            }
+
+            final int titleId = this.titles.size();
+            this.titles.add(title);
+            this.normalizedTitles.add(normalizedTitle);
+            this.titleIdsByNormalizedTitle.put(normalizedTitle, titleId);
+
+            trigramsOf(normalizedTitle).forEach(trigram -> this.titleIdsByTrigram
+                    .computeIfAbsent(trigram, key -> new ArrayList<>())
+                    .add(titleId));
+
+            return true;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the known title closest to the query within {@code maxEditDistance} edits, or nothing if the query
+     *         already is a known title or no title is close enough
+     */
+    public Optional<String> findClosest(final String query, final int maxEditDistance) {
+        final String normalizedQuery = TitleIndex.normalize(query);
+        if (normalizedQuery.isEmpty()) {
+            return Optional.empty();
+        }
+
+        this.lock.readLock().lock();
+        try {
+            if (this.titleIdsByNormalizedTitle.containsKey(normalizedQuery)) {
+                return Optional.empty();
+            }
+
+            final Map<Integer, Integer> sharedTrigramCounts = new HashMap<>();
+            trigramsOf(normalizedQuery).forEach(trigram -> this.titleIdsByTrigram
+                    .getOrDefault(trigram, List.of())
+                    .forEach(titleId -> sharedTrigramCounts.merge(titleId, 1, Integer::sum)));
+
+            return sharedTrigramCounts.entrySet().stream()
+                    .sorted(Map.Entry.<Integer, Integer>comparingByValue().reversed())
+                    .limit(MAX_SHORTLISTED_TITLES)
+                    .map(Map.Entry::getKey)
+                    .map(titleId -> new Candidate(titleId, this.distanceTo(normalizedQuery, titleId)))
+                    .filter(candidate -> candidate.distance() <= maxEditDistance)
+                    .min(Comparator.comparingInt(Candidate::distance))
+                    .map(candidate -> this.titles.get(candidate.titleId()));
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public int getTitleCount() {
+        this.lock.readLock().lock();
+        try {
+            return this.titles.size();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Compares the query with the title both as is and without its leading article, since users rarely type the
+     * article
+     */
+    private int distanceTo(final String normalizedQuery, final int titleId) {
+        final String normalizedTitle = this.normalizedTitles.get(titleId);
+        final String titleWithoutArticle = LEADING_ARTICLE_PATTERN.matcher(normalizedTitle).replaceFirst("");
+
+        return Math.min(levenshteinDistance(normalizedQuery, normalizedTitle),
+                        levenshteinDistance(normalizedQuery, titleWithoutArticle));
+    }
+
+    private static Set<String> trigramsOf(final String normalizedText) {
+        final String paddedText = LEADING_PADDING.concat(normalizedText).concat(TRAILING_PADDING);
+        final Set<String> trigrams = new LinkedHashSet<>();
+
+        for (int i = 0; i + TRIGRAM_LENGTH <= paddedText.length(); i++) {
+            trigrams.add(paddedText.substring(i, i + TRIGRAM_LENGTH));
+        }
+
+        return trigrams;
+    }
+
+    private static int levenshteinDistance(final String source, final String target) {
+        int[] previousRow = new int[target.length() + 1];
+        int[] currentRow = new int[target.length() + 1];
+
+        for (int j = 0; j <= target.length(); j++) {
+            previousRow[j] = j;
+        }
+
+        for (int i = 1; i <= source.length(); i++) {
+            currentRow[0] = i;
+
+            for (int j = 1; j <= target.length(); j++) {
+                final int substitutionCost = source.charAt(i - 1) == target.charAt(j - 1) ? 0 : 1;
+                currentRow[j] = Math.min(Math.min(currentRow[j - 1] + 1, previousRow[j] + 1),
+                                         previousRow[j - 1] + substitutionCost);
+            }
+
+            final int[] swappedRow = previousRow;
+            previousRow = currentRow;
+            currentRow = swappedRow;
+        }
+
+        return previousRow[target.length()];
+    }
+
+    private record Candidate(int titleId, int distance) {}
+}
@@ -0,0 +1,198 @@
+package com.learning.movie.service.tmdb;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.learning.movie.config.properties.TmdbIdMappingProperties;
+import com.learning.movie.dto.tmdb.TmdbExternalIds;
+import com.learning.movie.dto.tmdb.TmdbFindResponse;
+import com.learning.movie.model.TmdbIdMapping;
+import com.learning.movie.repository.TmdbIdMappingRepository;
+import com.learning.movie.repository.TmdbRepository;
+import com.learning.movie.service.cache.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Resolves IMDb ttIds to TMDB movie ids and back, so that joining OMDb and TMDB results does not cost a TMDB lookup
+ * every time
+ * <p />
+ * Mappings never change once TMDB knows a movie, so they are persisted in the {@code tmdb_id_mappings} table and held
+ * in memory in both directions. A mapping missing from both is looked up once through a {@link SingleFlight}, with
+ * {@code /3/find} for a ttId or {@code /3/movie/{movie_id}/external_ids} for a TMDB id, and then persisted. Movies TMDB
+ * does not know are not mapped and are looked up again on their next resolution
+ */
+@Service
+public class TmdbIdMappingService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TmdbIdMappingService.class);
+
+    public static final int MAX_BATCH_SIZE = 100;     // Maximum number of ttIds resolved per batch
+    public static final String TT_ID_REGEXP = "tt\\d+"; // Format of the IMDb ttIds that can be resolved
+
+    private final TmdbIdMappingRepository tmdbIdMappingRepository;
+    private final TmdbRepository tmdbRepository;
+    private final TmdbIdMappingProperties tmdbIdMappingProperties;
+    private final Cache<String, Long> tmdbIdsByTtId;
+    private final Cache<Long, String> ttIdsByTmdbId;
+    private final SingleFlight<Long> tmdbIdLookups;
+    private final SingleFlight<String> ttIdLookups;
+
+    @Autowired
+    public TmdbIdMappingService(final TmdbIdMappingRepository tmdbIdMappingRepository,
+                                final TmdbRepository tmdbRepository,
+                                final TmdbIdMappingProperties tmdbIdMappingProperties,
+                                final MeterRegistry meterRegistry) {
+        this.tmdbIdMappingRepository = tmdbIdMappingRepository;
+        this.tmdbRepository = tmdbRepository;
+        this.tmdbIdMappingProperties = tmdbIdMappingProperties;
+        this.tmdbIdsByTtId = Caffeine.newBuilder()
+                .maximumSize(tmdbIdMappingProperties.getMaximumSize())
+                .recordStats()
+                .build();
+        this.ttIdsByTmdbId = Caffeine.newBuilder()
+                .maximumSize(tmdbIdMappingProperties.getMaximumSize())
+                .recordStats()
+                .build();
+        this.tmdbIdLookups = new SingleFlight<>("tmdbIdLookups", meterRegistry);
+        this.ttIdLookups = new SingleFlight<>("ttIdLookups", meterRegistry);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, this.tmdbIdsByTtId, "tmdbIdsByTtId");
+        CaffeineCacheMetrics.monitor(meterRegistry, this.ttIdsByTmdbId, "ttIdsByTmdbId");
+    }
+
+    public Mono<Long> resolveTmdbId(final String ttId) {
+        return this.resolveTmdbIds(List.of(ttId))
+                .mapNotNull(tmdbIdsByTtId -> tmdbIdsByTtId.get(ttId));
+    }
+
+    /**
+     * Resolves the ttIds held in memory right away, then the ones persisted with a single query, and looks up the rest
+     * on TMDB with up to {@code resolve-parallelism} concurrent lookups
+     *
+     * @return the TMDB id of every ttId TMDB knows, ttIds that could not be resolved being left out
+     */
+    public Mono<Map<String, Long>> resolveTmdbIds(final Collection<String> ttIds) {
+        if (ttIds.size() > MAX_BATCH_SIZE) {
+            return Mono.error(new IllegalArgumentException("At most %d ttIds can be resolved at once"
+                    .formatted(MAX_BATCH_SIZE)));
+        }
+
+        return Mono.defer(() -> {
+            final Map<String, Long> resolvedTmdbIds = new HashMap<>();
+            final List<String> unresolvedTtIds = new ArrayList<>();
+
+            for (final String ttId : new LinkedHashSet<>(ttIds)) {
+                Optional.ofNullable(this.tmdbIdsByTtId.getIfPresent(ttId))
+                        .ifPresentOrElse(tmdbId -> resolvedTmdbIds.put(ttId, tmdbId), () -> unresolvedTtIds.add(ttId));
+            }
+
+            if (unresolvedTtIds.isEmpty()) {
+                return Mono.just(resolvedTmdbIds);
+            }
+
+            return this.tmdbIdMappingRepository.findAllByTtIdIn(unresolvedTtIds)
+                    .doOnNext(mapping -> this.remember(mapping.getTtId(), mapping.getTmdbId()))
+                    .collectMap(TmdbIdMapping::getTtId, TmdbIdMapping::getTmdbId)
+                    .flatMap(persistedTmdbIds -> Flux.fromIterable(unresolvedTtIds)
+                            .filter(ttId -> !persistedTmdbIds.containsKey(ttId))
+                            .flatMap(ttId -> this.lookUpTmdbId(ttId).map(tmdbId -> Map.entry(ttId, tmdbId)),
+                                     this.tmdbIdMappingProperties.getResolveParallelism())
+                            .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                            .map(lookedUpTmdbIds -> {
+                                resolvedTmdbIds.putAll(persistedTmdbIds);
+                                resolvedTmdbIds.putAll(lookedUpTmdbIds);
+                                return resolvedTmdbIds;
+                            }));
+        });
+    }
+
+    /**
+     * Resolves the TMDB ids held in memory right away, then the ones persisted with a single query, and looks up the
+     * rest on TMDB with up to {@code resolve-parallelism} concurrent lookups
+     *
+     * @return the ttId of every TMDB id TMDB knows the IMDb id of, TMDB ids that could not be resolved being left out
+     */
+    public Mono<Map<Long, String>> resolveTtIds(final Collection<Long> tmdbIds) {
+        return Mono.defer(() -> {
+            final Map<Long, String> resolvedTtIds = new HashMap<>();
+            final List<Long> unresolvedTmdbIds = new ArrayList<>();
+
+            for (final Long tmdbId : new LinkedHashSet<>(tmdbIds)) {
+                Optional.ofNullable(this.ttIdsByTmdbId.getIfPresent(tmdbId))
+                        .ifPresentOrElse(ttId -> resolvedTtIds.put(tmdbId, ttId), () -> unresolvedTmdbIds.add(tmdbId));
+            }
+
+            if (unresolvedTmdbIds.isEmpty()) {
+                return Mono.just(resolvedTtIds);
+            }
+
+            return this.tmdbIdMappingRepository.findAllByTmdbIdIn(unresolvedTmdbIds)
+                    .doOnNext(mapping -> this.remember(mapping.getTtId(), mapping.getTmdbId()))
+                    .collectMap(TmdbIdMapping::getTmdbId, TmdbIdMapping::getTtId)
+                    .flatMap(persistedTtIds -> Flux.fromIterable(unresolvedTmdbIds)
+                            .filter(tmdbId -> !persistedTtIds.containsKey(tmdbId))
+                            .flatMap(tmdbId -> this.lookUpTtId(tmdbId).map(ttId -> Map.entry(tmdbId, ttId)),
+                                     this.tmdbIdMappingProperties.getResolveParallelism())
+                            .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                            .map(lookedUpTtIds -> {
+                                resolvedTtIds.putAll(persistedTtIds);
+                                resolvedTtIds.putAll(lookedUpTtIds);
+                                return resolvedTtIds;
+                            }));
+        });
+    }
+
+    private Mono<Long> lookUpTmdbId(final String ttId) {
+        return this.tmdbIdLookups.execute(ttId, () -> this.tmdbRepository.findMovieByTtId(ttId)
+                        .flatMapIterable(findResponse -> Optional.ofNullable(findResponse.movieResults())
+                                .orElse(List.of()))
+                        .next()
+                        .map(TmdbFindResponse.MovieResult::id)
+                        .flatMap(tmdbId -> this.persist(ttId, tmdbId).thenReturn(tmdbId)))
+                .onErrorResume(error -> {
+                    LOGGER.warn("Could not resolve the TMDB id of: {} due to: {}", ttId, error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<String> lookUpTtId(final Long tmdbId) {
+        return this.ttIdLookups.execute(String.valueOf(tmdbId), () -> this.tmdbRepository
+                        .getMovieExternalIds(String.valueOf(tmdbId))
+                        .map(TmdbExternalIds::imdbId)
+                        .filter(StringUtils::hasText)
+                        .flatMap(ttId -> this.persist(ttId, tmdbId).thenReturn(ttId)))
+                .onErrorResume(error -> {
+                    LOGGER.warn("Could not resolve the ttId of: {} due to: {}", tmdbId, error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Integer> persist(final String ttId, final Long tmdbId) {
+        this.remember(ttId, tmdbId);
+
+        return this.tmdbIdMappingRepository.insertIfAbsent(ttId, tmdbId)
+                .onErrorResume(error -> {
+                    LOGGER.warn("Could not persist the TMDB id mapping of: {} due to: {}", ttId, error.getMessage());
+                    return Mono.just(0);
+                });
+    }
+
+    private void remember(final String ttId, final Long tmdbId) {
+        this.tmdbIdsByTtId.put(ttId, tmdbId);
+        this.ttIdsByTmdbId.put(tmdbId, ttId);
+    }
+}
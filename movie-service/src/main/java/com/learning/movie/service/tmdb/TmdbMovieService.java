@@ -8,12 +8,16 @@ import com.learning.movie.dto.tmdb.review.TmdbReviewResponse;
 import com.learning.movie.dto.tmdb.review.TmdbReviewSummary;
 import com.learning.movie.dto.tmdb.search.MovieSearchResponse;
 import com.learning.movie.repository.TmdbRepository;
+import com.learning.movie.service.cache.TmdbMovieCache;
+import com.learning.movie.service.cache.WatchProvidersCache;
 import com.learning.movie.service.openapi.OpenAiService;
 import com.learning.movie.service.preprocessor.SearchParser;
+import com.learning.movie.service.suggest.TitleSuggestionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -27,15 +31,24 @@ public class TmdbMovieService {
 
     private final TmdbRepository tmdbRepository;
     private final OpenAiService openAiService;
+    private final TitleSuggestionService titleSuggestionService;
+    private final TmdbMovieCache tmdbMovieCache;
+    private final WatchProvidersCache watchProvidersCache;
 
     @Autowired
-    public TmdbMovieService(TmdbRepository tmdbRepository, OpenAiService openAiService) {
+    public TmdbMovieService(TmdbRepository tmdbRepository, OpenAiService openAiService,
+                            TitleSuggestionService titleSuggestionService, TmdbMovieCache tmdbMovieCache,
+                            WatchProvidersCache watchProvidersCache) {
         this.tmdbRepository = tmdbRepository;
         this.openAiService = openAiService;
+        this.titleSuggestionService = titleSuggestionService;
+        this.tmdbMovieCache = tmdbMovieCache;
+        this.watchProvidersCache = watchProvidersCache;
     }
 
     public Mono<TmdbMovie> getTmdbMovieById(final Long movieId) {
-        return this.tmdbRepository.getMovieDetailsByTtId(String.valueOf(movieId));
+        return this.tmdbMovieCache.get(movieId,
+                                       () -> this.tmdbRepository.getMovieDetailsByTtId(String.valueOf(movieId)));
     }
 
     public Mono<MovieSearchResponse> searchForMovies(String text) {
@@ -43,12 +56,19 @@ public class TmdbMovieService {
         final String query = parsedParams.get(SearchParser.PARSE_KEY_QUERY);
         final String year = parsedParams.get(SearchParser.PARSE_KEY_YEAR);
 
-        return this.tmdbRepository.searchForMovies(query, year);
+        return this.tmdbRepository.searchForMovies(query, year)
+                .flatMap(searchResponse -> !CollectionUtils.isEmpty(searchResponse.getResults())
+                        ? Mono.just(searchResponse)
+                        : Mono.justOrEmpty(this.titleSuggestionService.correct(query))
+                            .doOnNext(correctedQuery -> LOGGER.info("Re-issuing TMDB search: {} as: {}", query, correctedQuery))
+                            .flatMap(correctedQuery -> this.tmdbRepository.searchForMovies(correctedQuery, year))
+                            .defaultIfEmpty(searchResponse));
     }
 
     public Mono<WatchProvidersResponse> getMovieWatchProviders(Long movieId) {
         LOGGER.info("Entering TmdbMovieService.getMovieWatchProviders...");
-        return this.tmdbRepository.getMovieWatchProviders(String.valueOf(movieId));
+        return this.watchProvidersCache.get(movieId,
+                                            () -> this.tmdbRepository.getMovieWatchProviders(String.valueOf(movieId)));
     }
 
     public Mono<TmdbReviewSummary> getMovieReviews(Long movieId, String movieName) {
@@ -5,6 +5,7 @@ GRANT ALL PRIVILEGES ON DATABASE movie_share_db TO postgres;
 DROP TABLE IF EXISTS subscription_platforms;
 DROP TABLE IF EXISTS movie_streaming_release_subscriptions;
 DROP TABLE IF EXISTS movie_details;
+DROP TABLE IF EXISTS tmdb_id_mappings;
 
 CREATE TABLE movie_details (
     id CHAR(36) NOT NULL PRIMARY KEY,
@@ -49,4 +50,12 @@ CREATE TABLE subscription_platforms (
         ON DELETE CASCADE,
     FOREIGN KEY (platform)
         REFERENCES streaming_platforms(name)
-);
\ No newline at end of file
+);
+
+CREATE TABLE tmdb_id_mappings (
+    ttid VARCHAR(255) NOT NULL PRIMARY KEY,
+    tmdb_id BIGINT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_tmdb_id_mappings_tmdb_id ON tmdb_id_mappings (tmdb_id);
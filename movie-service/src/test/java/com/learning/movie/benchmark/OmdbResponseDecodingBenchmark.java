@@ -0,0 +1,132 @@
+package com.learning.movie.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learning.movie.dto.omdbapi.OmdbApiPaginatedSearchResponse;
+import com.learning.movie.dto.omdbapi.OmdbApiResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Compares decoding an OMDb response body into its DTO straight from the body's buffers, as the {@code omdbApiClient}
+ * does with its {@code text/plain} JSON decoder, against decoding it into a String first and parsing that String with
+ * the {@link ObjectMapper}, as {@code bodyToMono(String.class)} followed by {@code readValue} did
+ * <p />
+ * The body is split into buffers the size of a typical network read, as a WebClient receives it. Run it with
+ * {@code mvn -Pbenchmark test-compile exec:exec}, whose {@code gc} profiler reports the allocation of every operation
+ * as {@code gc.alloc.rate.norm}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OmdbResponseDecodingBenchmark {
+    private static final int NETWORK_READ_BYTES = 1024;
+    private static final MediaType OMDB_MEDIA_TYPE = MediaType.TEXT_PLAIN;
+    private static final Map<String, Object> NO_HINTS = Collections.emptyMap();
+
+    private static final String MOVIE_DETAILS_BODY = """
+            {"Title":"The Dark Knight","Year":"2008","Rated":"PG-13","Released":"18 Jul 2008","Runtime":"152 min",\
+            "Genre":"Action, Crime, Drama","Director":"Christopher Nolan",\
+            "Writer":"Jonathan Nolan, Christopher Nolan, David S. Goyer",\
+            "Actors":"Christian Bale, Heath Ledger, Aaron Eckhart",\
+            "Plot":"When the menace known as the Joker wreaks havoc and chaos on the people of Gotham, Batman must \
+            accept one of the greatest psychological and physical tests of his ability to fight injustice.",\
+            "Language":"English, Mandarin","Country":"United States, United Kingdom",\
+            "Awards":"Won 2 Oscars. 163 wins & 164 nominations total",\
+            "Poster":"https://m.media-amazon.com/images/M/MV5BMTMxNTMwODM0NF5BMl5BanBnXkFtZTcwODAyMTk2Mw@@._V1_SX300.jpg",\
+            "Ratings":[{"Source":"Internet Movie Database","Value":"9.0/10"},{"Source":"Rotten Tomatoes","Value":"94%"},\
+            {"Source":"Metacritic","Value":"84/100"}],"Metascore":"84","imdbRating":"9.0","imdbVotes":"2,901,424",\
+            "imdbID":"tt0468569","Type":"movie","DVD":"N/A","BoxOffice":"$534,987,076","Production":"N/A",\
+            "Website":"N/A","Response":"True"}""";
+
+    private static final String SEARCH_PAGE_BODY = IntStream.rangeClosed(1, 10)
+            .mapToObj("""
+                    {"Title":"The Dark Knight Part %1$d","Year":"20%1$02d","imdbID":"tt04685%1$02d","Type":"movie",\
+                    "Poster":"https://m.media-amazon.com/images/M/MV5BMTMxNTMwODM0NF5BMl5BanBnXkFtZTcwODAyMTk2Mw@@._V1_SX300.jpg"}"""
+                            ::formatted)
+            .collect(Collectors.joining(",", "{\"Search\":[", "],\"totalResults\":\"184\",\"Response\":\"True\"}"));
+
+    @Param({"search-page", "movie-details"})
+    private String response;
+
+    private ObjectMapper objectMapper;
+    private Jackson2JsonDecoder jsonDecoder;
+    private StringDecoder stringDecoder;
+    private Class<?> responseType;
+    private List<byte[]> networkReads;
+
+    @Setup
+    public void setUp() {
+        this.objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        this.jsonDecoder = new Jackson2JsonDecoder(this.objectMapper, MediaType.TEXT_PLAIN, MediaType.APPLICATION_JSON);
+        this.stringDecoder = StringDecoder.allMimeTypes();
+
+        final String body = "search-page".equals(this.response) ? SEARCH_PAGE_BODY : MOVIE_DETAILS_BODY;
+        this.responseType = "search-page".equals(this.response)
+                ? OmdbApiPaginatedSearchResponse.class
+                : OmdbApiResponse.class;
+        this.networkReads = splitIntoNetworkReads(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public Object decodeFromBuffers() {
+        return this.jsonDecoder
+                .decodeToMono(this.body(), ResolvableType.forClass(this.responseType), OMDB_MEDIA_TYPE, NO_HINTS)
+                .block();
+    }
+
+    @Benchmark
+    public Object decodeFromString() throws Exception {
+        final String responseText = this.stringDecoder
+                .decodeToMono(this.body(), ResolvableType.forClass(String.class), OMDB_MEDIA_TYPE, NO_HINTS)
+                .block();
+
+        return this.objectMapper.readValue(responseText, this.responseType);
+    }
+
+    /**
+     * @return the body as the buffers of its network reads, wrapping the bytes without copying them as the decoders
+     *         release the buffers they consume
+     */
+    private Flux<DataBuffer> body() {
+        return Flux.fromIterable(this.networkReads).map(DefaultDataBufferFactory.sharedInstance::wrap);
+    }
+
+    private static List<byte[]> splitIntoNetworkReads(final byte[] body) {
+        final List<byte[]> networkReads = new ArrayList<>();
+        for (int offset = 0; offset < body.length; offset += NETWORK_READ_BYTES) {
+            networkReads.add(Arrays.copyOfRange(body, offset, Math.min(body.length, offset + NETWORK_READ_BYTES)));
+        }
+
+        return networkReads;
+    }
+}
@@ -0,0 +1,68 @@
+package com.learning.movie.config.concurrency;
+
+import com.learning.movie.config.properties.ConcurrencyLimiterProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+    private static final Duration LATENCY_THRESHOLD = Duration.ofMillis(500);
+
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        final ConcurrencyLimiterProperties.Limiter properties = new ConcurrencyLimiterProperties.Limiter();
+        properties.setInitialLimit(16);
+        properties.setMinLimit(1);
+        properties.setLatencyThreshold(LATENCY_THRESHOLD);
+        properties.setBackoffRatio(0.5);
+
+        this.limiter = new AdaptiveConcurrencyLimiter("test", properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void decreasesTheLimitOnceForAWindowOfOverloadedCalls() {
+        final List<Sinks.One<String>> responses = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            final Sinks.One<String> response = Sinks.one();
+            responses.add(response);
+            this.limiter.limit(response.asMono()).onErrorResume(e -> Mono.empty()).subscribe();
+        }
+        assertThat(this.limiter.getInFlight()).isEqualTo(8);
+
+        responses.forEach(response -> response.tryEmitError(serviceUnavailable()));
+
+        assertThat(this.limiter.getInFlight()).isZero();
+        assertThat(this.limiter.getLimit()).isEqualTo(8.0);
+    }
+
+    @Test
+    void decreasesTheLimitAgainOnceTheLatencyThresholdHasPassed() throws InterruptedException {
+        StepVerifier.create(this.limiter.limit(Mono.error(serviceUnavailable()))).verifyError();
+        StepVerifier.create(this.limiter.limit(Mono.error(serviceUnavailable()))).verifyError();
+        assertThat(this.limiter.getLimit()).isEqualTo(8.0);
+
+        Thread.sleep(LATENCY_THRESHOLD.multipliedBy(2).toMillis());
+
+        StepVerifier.create(this.limiter.limit(Mono.error(serviceUnavailable()))).verifyError();
+        assertThat(this.limiter.getLimit()).isEqualTo(4.0);
+    }
+
+    private static WebClientResponseException serviceUnavailable() {
+        return WebClientResponseException.create(503, "Service Unavailable", HttpHeaders.EMPTY, new byte[0],
+                StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,58 @@
+package com.learning.movie.service.cache;
+
+import com.learning.movie.config.properties.NearCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class NearCacheTest {
+    private static final Duration EXPIRE_AFTER_WRITE = Duration.ofSeconds(1);
+    private static final String KEY = "movieapp:search:dark:null:null";
+
+    private NearCache<String> nearCache;
+
+    @BeforeEach
+    void setUp() {
+        final ReactiveStringRedisTemplate reactiveStringRedisTemplate = mock(ReactiveStringRedisTemplate.class);
+        when(reactiveStringRedisTemplate.convertAndSend(anyString(), anyString())).thenReturn(Mono.just(0L));
+
+        final NearCacheProperties nearCacheProperties = new NearCacheProperties();
+        nearCacheProperties.setExpireAfterWrite(EXPIRE_AFTER_WRITE);
+
+        this.nearCache = new NearCache<>("test", nearCacheProperties, reactiveStringRedisTemplate, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void invalidatesEveryFieldOfAKey() {
+        this.nearCache.put(KEY, "1", "first page");
+        this.nearCache.put(KEY, "2", "second page");
+
+        StepVerifier.create(this.nearCache.invalidate(KEY)).expectNext(0L).verifyComplete();
+
+        assertThat(this.nearCache.getIfPresent(KEY, "1")).isNull();
+        assertThat(this.nearCache.getIfPresent(KEY, "2")).isNull();
+    }
+
+    @Test
+    void invalidatesAValueWrittenOverAnExpiredOne() throws InterruptedException {
+        this.nearCache.put(KEY, "1", "expired page");
+        Thread.sleep(EXPIRE_AFTER_WRITE.multipliedBy(2).toMillis());
+
+        this.nearCache.put(KEY, "1", "fresh page");
+        assertThat(this.nearCache.getIfPresent(KEY, "1")).isEqualTo("fresh page");
+
+        StepVerifier.create(this.nearCache.invalidate(KEY)).expectNext(0L).verifyComplete();
+
+        assertThat(this.nearCache.getIfPresent(KEY, "1")).isNull();
+    }
+}
@@ -0,0 +1,267 @@
+package com.learning.movie.service.scheduler;
+
+import com.learning.movie.config.concurrency.AdaptiveConcurrencyLimiter;
+import com.learning.movie.config.concurrency.RequestHedger;
+import com.learning.movie.config.properties.ConcurrencyLimiterProperties;
+import com.learning.movie.config.properties.HedgingProperties;
+import com.learning.movie.config.properties.TmdbChangesProperties;
+import com.learning.movie.repository.TmdbRepository;
+import com.learning.movie.service.DiscoverMovieService;
+import com.learning.movie.service.cache.TmdbMovieCache;
+import com.learning.movie.service.cache.WatchProvidersCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the scheduler and the real {@link TmdbRepository} against a stub of TMDB's changes feed served by the
+ * {@link ExchangeFunction} of its WebClient, with Redis replaced by an in-memory map
+ */
+class TmdbChangesSchedulerTest {
+    private static final String HIGH_WATER_MARK_KEY = "movieapp:tmdb-changes:high-water-mark";
+    private static final String LOCK_KEY = "movieapp:tmdb-changes:lock";
+    private static final String OTHER_NODE_ID = "other-node";
+    private static final String TMDB_BASE_URL = "https://api.themoviedb.org";
+
+    private final LocalDate today = LocalDate.now(ZoneOffset.UTC);
+    private final Map<String, String> redis = new ConcurrentHashMap<>();
+    private final Map<URI, Supplier<ClientResponse>> changesFeed = new ConcurrentHashMap<>();
+    private final List<URI> requestedUris = new CopyOnWriteArrayList<>();
+
+    private TmdbMovieCache tmdbMovieCache;
+    private WatchProvidersCache watchProvidersCache;
+    private DiscoverMovieService discoverMovieService;
+    private SimpleMeterRegistry meterRegistry;
+    private TmdbChangesScheduler tmdbChangesScheduler;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        this.tmdbMovieCache = mock(TmdbMovieCache.class);
+        this.watchProvidersCache = mock(WatchProvidersCache.class);
+        this.discoverMovieService = mock(DiscoverMovieService.class);
+        this.meterRegistry = new SimpleMeterRegistry();
+
+        when(this.tmdbMovieCache.evict(anyLong())).thenAnswer(invocation -> Mono.just(invocation.<Long>getArgument(0) % 2 == 0));
+        when(this.watchProvidersCache.evict(anyLong())).thenReturn(Mono.just(true));
+        when(this.discoverMovieService.evictChangedNewMovies(anyCollection())).thenReturn(Mono.just(false));
+
+        final ReactiveStringRedisTemplate reactiveStringRedisTemplate = mock(ReactiveStringRedisTemplate.class);
+        final ReactiveValueOperations<String, String> valueOperations = mock(ReactiveValueOperations.class);
+        when(reactiveStringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenAnswer(invocation ->
+                Mono.fromCallable(() -> this.redis.putIfAbsent(invocation.getArgument(0), invocation.getArgument(1)) == null));
+        when(valueOperations.get(anyString())).thenAnswer(invocation ->
+                Mono.justOrEmpty(this.redis.get(invocation.<String>getArgument(0))));
+        when(valueOperations.set(anyString(), anyString())).thenAnswer(invocation -> Mono.fromCallable(() -> {
+            this.redis.put(invocation.getArgument(0), invocation.getArgument(1));
+            return true;
+        }));
+        // The only script of the scheduler releases the lock KEYS[1] if it is held by the node ARGV[1]
+        when(reactiveStringRedisTemplate.execute(any(RedisScript.class), anyList(), anyList())).thenAnswer(invocation -> {
+            final List<String> keys = invocation.getArgument(1);
+            final List<String> args = invocation.getArgument(2);
+            return Flux.just(this.redis.remove(keys.get(0), args.get(0)) ? 1L : 0L);
+        });
+
+        final TmdbChangesProperties tmdbChangesProperties = new TmdbChangesProperties();
+        tmdbChangesProperties.setInitialLookback(Duration.ofDays(2));
+
+        // Serves the pages of the changes feed registered for a URI, and 404 for any other request
+        final ExchangeFunction tmdbApi = request -> {
+            this.requestedUris.add(request.url());
+            return Mono.fromSupplier(this.changesFeed.getOrDefault(
+                    request.url(), () -> ClientResponse.create(HttpStatus.NOT_FOUND).build()));
+        };
+        final WebClient tmdbApiClient = WebClient.builder()
+                .baseUrl(TMDB_BASE_URL)
+                .filter(AdaptiveConcurrencyLimiter.exchangeLatencyRecorder())
+                .exchangeFunction(tmdbApi)
+                .build();
+        final TmdbRepository tmdbRepository = new TmdbRepository(
+                tmdbApiClient,
+                new AdaptiveConcurrencyLimiter("tmdb", new ConcurrencyLimiterProperties.Limiter(), this.meterRegistry),
+                new RequestHedger("tmdb-movie-details", new HedgingProperties.Hedge(), this.meterRegistry),
+                new RequestHedger("tmdb-watch-providers", new HedgingProperties.Hedge(), this.meterRegistry));
+
+        this.tmdbChangesScheduler = new TmdbChangesScheduler(tmdbRepository, this.tmdbMovieCache,
+                                                             this.watchProvidersCache, this.discoverMovieService,
+                                                             reactiveStringRedisTemplate, tmdbChangesProperties,
+                                                             this.meterRegistry);
+    }
+
+    @Test
+    void evictsEveryChangedMovieSinceTheHighWaterMarkAndMovesItToToday() {
+        final LocalDate highWaterMark = this.today.minusDays(3);
+        this.redis.put(HIGH_WATER_MARK_KEY, highWaterMark.toString());
+        this.stubChangesPage(highWaterMark, 1, 2, 10, 11, 12);
+        this.stubChangesPage(highWaterMark, 2, 2, 12, 13);
+        when(this.discoverMovieService.evictChangedNewMovies(anyCollection())).thenReturn(Mono.just(true));
+
+        StepVerifier.create(this.tmdbChangesScheduler.syncMovieChanges()).verifyComplete();
+
+        assertThat(this.requestedUris).hasSize(2);
+        for (int page = 1; page <= 2; page++) {
+            final URI requestedUri = this.requestedUris.get(page - 1);
+            final MultiValueMap<String, String> queryParams = UriComponentsBuilder.fromUri(requestedUri).build().getQueryParams();
+            assertThat(requestedUri.getPath()).isEqualTo("/3/movie/changes");
+            assertThat(queryParams.toSingleValueMap()).isEqualTo(Map.of(
+                    "start_date", highWaterMark.toString(),
+                    "end_date", this.today.toString(),
+                    "page", String.valueOf(page)));
+        }
+        for (final long movieId : List.of(10L, 11L, 12L, 13L)) {
+            verify(this.tmdbMovieCache).evict(movieId);
+            verify(this.watchProvidersCache).evict(movieId);
+        }
+        verify(this.discoverMovieService).evictChangedNewMovies(List.of(10L, 11L, 12L, 13L));
+
+        assertThat(this.redis).containsEntry(HIGH_WATER_MARK_KEY, this.today.toString()).doesNotContainKey(LOCK_KEY);
+        assertThat(this.counter("movieapp.tmdb.changes.changed", null)).isEqualTo(4);
+        assertThat(this.counter("movieapp.tmdb.changes.evicted", "tmdb-movie")).isEqualTo(2);
+        assertThat(this.counter("movieapp.tmdb.changes.evicted", "watch-providers")).isEqualTo(4);
+        assertThat(this.counter("movieapp.tmdb.changes.evicted", "newly-released-movies")).isEqualTo(1);
+    }
+
+    @Test
+    void startsFromTheInitialLookbackWithoutAHighWaterMark() {
+        final LocalDate startDate = this.today.minusDays(2);
+        this.stubChangesPage(startDate, 1, 1, 20);
+
+        StepVerifier.create(this.tmdbChangesScheduler.syncMovieChanges()).verifyComplete();
+
+        verify(this.tmdbMovieCache).evict(20L);
+        assertThat(this.redis).containsEntry(HIGH_WATER_MARK_KEY, this.today.toString());
+    }
+
+    @Test
+    void movesAHighWaterMarkOlderThanTheFeedForward() {
+        this.redis.put(HIGH_WATER_MARK_KEY, this.today.minusDays(30).toString());
+        final LocalDate oldestAvailableDate = this.today.minusDays(13);
+        this.stubChangesPage(oldestAvailableDate, 1, 1);
+
+        StepVerifier.create(this.tmdbChangesScheduler.syncMovieChanges()).verifyComplete();
+
+        assertThat(this.requestedUris).containsExactly(changesPageUri(oldestAvailableDate, this.today, 1));
+        assertThat(this.redis).containsEntry(HIGH_WATER_MARK_KEY, this.today.toString());
+    }
+
+    @Test
+    void skipsTheSyncWhileAnotherNodeHoldsTheLock() {
+        final String highWaterMark = this.today.minusDays(1).toString();
+        this.redis.put(HIGH_WATER_MARK_KEY, highWaterMark);
+        this.redis.put(LOCK_KEY, OTHER_NODE_ID);
+
+        StepVerifier.create(this.tmdbChangesScheduler.syncMovieChanges()).verifyComplete();
+
+        assertThat(this.requestedUris).isEmpty();
+        assertThat(this.redis).containsEntry(HIGH_WATER_MARK_KEY, highWaterMark).containsEntry(LOCK_KEY, OTHER_NODE_ID);
+    }
+
+    @Test
+    void releasesTheLockAndKeepsTheHighWaterMarkWhenTheFeedFails() {
+        final LocalDate highWaterMark = this.today.minusDays(1);
+        this.redis.put(HIGH_WATER_MARK_KEY, highWaterMark.toString());
+        this.changesFeed.put(changesPageUri(highWaterMark, this.today, 1),
+                             () -> ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build());
+
+        StepVerifier.create(this.tmdbChangesScheduler.syncMovieChanges())
+                .verifyError(WebClientResponseException.ServiceUnavailable.class);
+
+        assertThat(this.redis).containsEntry(HIGH_WATER_MARK_KEY, highWaterMark.toString()).doesNotContainKey(LOCK_KEY);
+    }
+
+    @Test
+    void keepsTheLockAnotherNodeAcquiredAfterTheLockExpired() {
+        final LocalDate highWaterMark = this.today.minusDays(1);
+        this.redis.put(HIGH_WATER_MARK_KEY, highWaterMark.toString());
+        final Supplier<ClientResponse> changesPage = changesPageResponse(1, 1, 30);
+        this.changesFeed.put(changesPageUri(highWaterMark, this.today, 1), () -> {
+            // The lock of this node expires while the feed is being read, and another node acquires it
+            this.redis.put(LOCK_KEY, OTHER_NODE_ID);
+            return changesPage.get();
+        });
+
+        StepVerifier.create(this.tmdbChangesScheduler.syncMovieChanges()).verifyComplete();
+
+        verify(this.tmdbMovieCache).evict(30L);
+        assertThat(this.redis).containsEntry(LOCK_KEY, OTHER_NODE_ID);
+    }
+
+    private double counter(final String name, final String cache) {
+        return this.meterRegistry.find(name)
+                .tags(cache == null ? new String[0] : new String[] {"cache", cache})
+                .counters()
+                .stream()
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+
+    /**
+     * Serves a page of the movies changed from the start date until today
+     */
+    private void stubChangesPage(final LocalDate startDate, final int page, final int totalPages, final long... movieIds) {
+        this.changesFeed.put(changesPageUri(startDate, this.today, page), changesPageResponse(page, totalPages, movieIds));
+    }
+
+    private static URI changesPageUri(final LocalDate startDate, final LocalDate endDate, final int page) {
+        return UriComponentsBuilder.fromHttpUrl(TMDB_BASE_URL)
+                .path("/3/movie/changes")
+                .queryParam("start_date", startDate)
+                .queryParam("end_date", endDate)
+                .queryParam("page", page)
+                .build()
+                .toUri();
+    }
+
+    private static Supplier<ClientResponse> changesPageResponse(final int page, final int totalPages, final long... movieIds) {
+        final String results = LongStream.of(movieIds)
+                .mapToObj("{\"id\":%d,\"adult\":false}"::formatted)
+                .collect(Collectors.joining(","));
+        final String body = "{\"results\":[%s],\"page\":%d,\"total_pages\":%d,\"total_results\":%d}"
+                .formatted(results, page, totalPages, movieIds.length);
+
+        return () -> ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build();
+    }
+}